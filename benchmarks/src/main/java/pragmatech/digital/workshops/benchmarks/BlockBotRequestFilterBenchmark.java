@@ -0,0 +1,58 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import pragmatech.digital.workshops.lab4.config.BlockBotRequestFilter;
+
+/**
+ * Per-request cost of the User-Agent check for a regular browser and for a blocked bot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockBotRequestFilterBenchmark {
+
+  @Param({
+    "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+    "Mozilla/5.0 AppleWebKit/537.36 (KHTML, like Gecko; compatible; GPTBot/1.1; +https://openai.com/gptbot)"
+  })
+  public String userAgent;
+
+  private BlockBotRequestFilter filter;
+  private MockHttpServletRequest request;
+  private FilterChain filterChain;
+
+  @Setup
+  public void setUp() {
+    filter = new BlockBotRequestFilter(List.of("openai", "claude", "anthropic", "gpt"), 10_000);
+    request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader("User-Agent", userAgent);
+    filterChain = (servletRequest, servletResponse) -> {
+    };
+  }
+
+  @Benchmark
+  public MockHttpServletResponse doFilterInternal() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilterInternal(request, response, filterChain);
+    return response;
+  }
+}
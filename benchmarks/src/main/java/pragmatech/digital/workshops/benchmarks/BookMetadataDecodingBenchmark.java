@@ -0,0 +1,106 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pragmatech.digital.workshops.lab4.client.BookMetadataDecoder;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import reactor.core.publisher.Flux;
+
+/**
+ * Decoding of an OpenLibrary edition response that arrives in 8 KB network buffers, with the
+ * default {@link Jackson2JsonDecoder}, which joins the buffers into one before binding the
+ * document, versus {@link BookMetadataDecoder}, which parses every buffer as it arrives and only
+ * reads the properties {@code BookService} uses. Large editions mostly consist of
+ * {@code table_of_contents} entries. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per decoded response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookMetadataDecodingBenchmark {
+
+  private static final ResolvableType TYPE = ResolvableType.forClass(BookMetadataResponse.class);
+  private static final int CHUNK_SIZE = 8 * 1024;
+
+  @Param({"10", "2000"})
+  private int tableOfContentsEntries;
+
+  private Jackson2JsonDecoder jacksonDecoder;
+  private BookMetadataDecoder streamingDecoder;
+  private byte[][] chunks;
+
+  @Setup
+  public void setUp() {
+    jacksonDecoder = new Jackson2JsonDecoder(Jackson2ObjectMapperBuilder.json().build());
+    jacksonDecoder.setMaxInMemorySize(16 * 1024 * 1024);
+    streamingDecoder = new BookMetadataDecoder();
+
+    String tableOfContents = IntStream.range(0, tableOfContentsEntries)
+      .mapToObj(i -> "{\"level\": 0, \"label\": \"" + i + "\", \"title\": \"Chapter " + i + "\", \"pagenum\": \"" + i * 10 + "\"}")
+      .collect(Collectors.joining(", "));
+    String sourceRecords = IntStream.range(0, 50)
+      .mapToObj(i -> "\"marc:marc_loc_2016/BooksAll.2016.part35.utf8:" + i + ":1131\"")
+      .collect(Collectors.joining(", "));
+
+    byte[] json = ("""
+      {
+        "title": "Clean Code",
+        "subtitle": "A Handbook of Agile Software Craftsmanship",
+        "publish_date": "July 2008",
+        "publishers": ["Prentice Hall"],
+        "source_records": [%s],
+        "key": "/books/OL26222911M",
+        "isbn_10": ["0132350882"],
+        "isbn_13": ["9780132350884"],
+        "physical_format": "Paperback",
+        "number_of_pages": 431,
+        "table_of_contents": [%s],
+        "description": "Even bad code can function. But if code isn't clean, it can bring a development organization to its knees.",
+        "subjects": ["Agile software development", "Computer software", "Reliability"],
+        "cover": {"small": 8085499, "medium": 8085499, "large": 8085499}
+      }
+      """).formatted(sourceRecords, tableOfContents).getBytes(StandardCharsets.UTF_8);
+
+    chunks = IntStream.range(0, (json.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+      .mapToObj(i -> Arrays.copyOfRange(json, i * CHUNK_SIZE, Math.min(json.length, (i + 1) * CHUNK_SIZE)))
+      .toArray(byte[][]::new);
+  }
+
+  @Benchmark
+  public Object jacksonDecoder() {
+    return jacksonDecoder.decodeToMono(body(), TYPE, MediaType.APPLICATION_JSON, null).block();
+  }
+
+  @Benchmark
+  public BookMetadataResponse streamingDecoder() {
+    return streamingDecoder.decodeToMono(body(), TYPE, MediaType.APPLICATION_JSON, null).block();
+  }
+
+  private Flux<DataBuffer> body() {
+    return Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+  }
+}
@@ -0,0 +1,65 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookMetadataEnricher;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The in-process part of {@link BookService#createBook(BookCreationRequest)}, with the database
+ * the enrichment queue and the suggestion index replaced by stubs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+  private BookService bookService;
+  private BookCreationRequest request;
+
+  @Setup
+  public void setUp() {
+    // Stub-only mocks do not record invocations, so they neither leak memory nor dominate the measurement
+    BookRepository bookRepository = mock(BookRepository.class, withSettings().stubOnly());
+    when(bookRepository.saveAndFlush(any(Book.class))).thenAnswer(invocation -> {
+      Book book = invocation.getArgument(0);
+      book.setId(42L);
+      return book;
+    });
+
+    BookMetadataEnricher bookMetadataEnricher = mock(BookMetadataEnricher.class, withSettings().stubOnly());
+
+    BookSuggestionIndex bookSuggestionIndex = mock(BookSuggestionIndex.class, withSettings().stubOnly());
+
+    bookService = new BookService(bookRepository, bookMetadataEnricher, bookSuggestionIndex, null);
+    request = new BookCreationRequest("978-0132350884", "Clean Code", "Robert C. Martin", LocalDate.of(2008, 8, 1));
+  }
+
+  @Benchmark
+  public Long createBook() {
+    return bookService.createBook(request);
+  }
+}
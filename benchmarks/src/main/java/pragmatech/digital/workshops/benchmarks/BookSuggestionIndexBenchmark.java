@@ -0,0 +1,58 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+
+/**
+ * Type-ahead lookups in a {@link BookSuggestionIndex} holding 100,000 books, for prefixes of
+ * increasing length as they arrive while typing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookSuggestionIndexBenchmark {
+
+  private static final int BOOKS = 100_000;
+
+  private static final String[] WORDS = {
+    "java", "spring", "dragon", "kingdom", "ocean", "winter", "shadow", "river", "castle", "forest",
+    "journey", "empire", "legend", "secret", "island", "mountain", "storm", "garden", "city", "patterns"
+  };
+
+  @Param({"j", "jav", "java pat"})
+  private String prefix;
+
+  private BookSuggestionIndex index;
+
+  @Setup
+  public void setUp() {
+    index = new BookSuggestionIndex(null, null, 5_000_000, 50);
+
+    for (int i = 0; i < BOOKS; i++) {
+      String title = WORDS[i % WORDS.length] + " " + WORDS[(i / 20) % WORDS.length] + " " + WORDS[(i / 400) % WORDS.length]
+        + " volume " + i;
+      index.add(title, "Author " + (i % 5_000));
+    }
+  }
+
+  @Benchmark
+  public List<String> suggest() {
+    return index.suggest(prefix, 10);
+  }
+}
@@ -0,0 +1,64 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.service.DiscountService;
+import pragmatech.digital.workshops.lab4.util.DefaultTimeProvider;
+
+/**
+ * Discount calculation for a catalogue page of books with publication dates spread over ten years,
+ * one book at a time and through the bulk API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscountServiceBenchmark {
+
+  private static final int BOOKS = 1024;
+
+  private DiscountService discountService;
+  private Book[] books;
+  private List<Book> bookList;
+
+  @Setup
+  public void setUp() {
+    discountService = new DiscountService(new DefaultTimeProvider());
+    books = IntStream.range(0, BOOKS)
+      .mapToObj(i -> new Book("isbn-" + i, "Title " + i, "Author", LocalDate.now().minusDays(i * 4L)))
+      .toArray(Book[]::new);
+    bookList = List.of(books);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BOOKS)
+  public void calculateDiscount(Blackhole blackhole) {
+    for (Book book : books) {
+      blackhole.consume(discountService.calculateDiscount(book));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BOOKS)
+  public void applyDiscounts(Blackhole blackhole) {
+    blackhole.consume(discountService.applyDiscounts(bookList));
+  }
+}
@@ -0,0 +1,74 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.entity.Book;
+
+/**
+ * Jackson (de)serialization of the types on the hot path, using an {@link ObjectMapper}
+ * configured like the one Spring Boot creates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonSerializationBenchmark {
+
+  private ObjectMapper objectMapper;
+  private Book book;
+  private BookMetadataResponse metadata;
+  private byte[] metadataJson;
+
+  @Setup
+  public void setUp() throws Exception {
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+
+    book = new Book("978-0132350884", "Clean Code", "Robert C. Martin", LocalDate.of(2008, 8, 1));
+    book.setId(42L);
+    book.setDescription("A Handbook of Agile Software Craftsmanship");
+    book.setThumbnailUrl("https://covers.openlibrary.org/b/id/8085499-M.jpg");
+
+    metadata = new BookMetadataResponse(
+      "/books/OL26222911M",
+      "Clean Code",
+      "A Handbook of Agile Software Craftsmanship",
+      Map.of("small", 8085499, "medium", 8085499, "large", 8085499));
+
+    metadataJson = objectMapper.writeValueAsBytes(metadata);
+  }
+
+  @Benchmark
+  public byte[] serializeBook() throws Exception {
+    return objectMapper.writeValueAsBytes(book);
+  }
+
+  @Benchmark
+  public byte[] serializeBookMetadataResponse() throws Exception {
+    return objectMapper.writeValueAsBytes(metadata);
+  }
+
+  @Benchmark
+  public BookMetadataResponse deserializeBookMetadataResponse() throws Exception {
+    return objectMapper.readValue(metadataJson, BookMetadataResponse.class);
+  }
+}
@@ -0,0 +1,156 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import pragmatech.digital.workshops.lab4.client.OpenLibraryRequestLoggingFilter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Requests per millisecond that four threads, standing in for Netty event-loop threads, push
+ * through the OpenLibrary request logging against a stubbed exchange. Compares the former
+ * {@code System.out.println} filter, which serializes all threads on the stream's lock and a
+ * write per request, with {@link OpenLibraryRequestLoggingFilter} behind a non-blocking
+ * {@link AsyncAppender}, logging every request and a 10% sample. Both write to a temporary file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class OpenLibraryRequestLoggingBenchmark {
+
+  private static final String BODY = "{\"title\": \"Clean Code\", \"cover\": {\"medium\": 8085499}}";
+
+  private Path logFile;
+  private PrintStream originalOut;
+  private AsyncAppender asyncAppender;
+
+  private ClientRequest request;
+  private ExchangeFunction exchange;
+  private ExchangeFilterFunction systemOutFilter;
+  private ExchangeFilterFunction allRequestsFilter;
+  private ExchangeFilterFunction sampledFilter;
+
+  @Setup
+  public void setUp() throws Exception {
+    logFile = Files.createTempFile("openlibrary-requests", ".log");
+
+    originalOut = System.out;
+    System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(logFile.toFile(), true)), true));
+    asyncAppender = configureAsyncLogging(logFile);
+
+    request = ClientRequest.create(HttpMethod.GET, URI.create("https://openlibrary.org/isbn/9780132350884"))
+      .attribute(WebClient.class.getName() + ".uriTemplate", "https://openlibrary.org/isbn/{isbn}")
+      .build();
+    exchange = clientRequest -> Mono.just(ClientResponse.create(HttpStatus.OK)
+      .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+      .body(BODY)
+      .build());
+
+    systemOutFilter = ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
+      System.out.println("Request: " + clientRequest.method() + " " + clientRequest.url());
+      return Mono.just(clientRequest);
+    });
+    allRequestsFilter = new OpenLibraryRequestLoggingFilter(1.0);
+    sampledFilter = new OpenLibraryRequestLoggingFilter(0.1);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    System.out.close();
+    System.setOut(originalOut);
+    asyncAppender.stop();
+    Files.deleteIfExists(logFile);
+  }
+
+  @Benchmark
+  public String systemOut() {
+    return exchange(systemOutFilter);
+  }
+
+  @Benchmark
+  public String asyncLoggingAllRequests() {
+    return exchange(allRequestsFilter);
+  }
+
+  @Benchmark
+  public String asyncLoggingSampled() {
+    return exchange(sampledFilter);
+  }
+
+  private String exchange(ExchangeFilterFunction filter) {
+    return filter.filter(request, exchange)
+      .flatMap(response -> response.bodyToMono(String.class))
+      .block();
+  }
+
+  /**
+   * The same appenders as {@code logback-spring.xml} in Lab 4, writing to a file instead of the console.
+   */
+  private static AsyncAppender configureAsyncLogging(Path logFile) {
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %logger{0} : %m %kvp%n");
+    encoder.start();
+
+    FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+    fileAppender.setContext(context);
+    fileAppender.setFile(logFile.toString());
+    fileAppender.setEncoder(encoder);
+    fileAppender.start();
+
+    AsyncAppender asyncAppender = new AsyncAppender();
+    asyncAppender.setContext(context);
+    asyncAppender.setQueueSize(8192);
+    asyncAppender.setDiscardingThreshold(0);
+    asyncAppender.setNeverBlock(true);
+    asyncAppender.addAppender(fileAppender);
+    asyncAppender.start();
+
+    Logger logger = context.getLogger(OpenLibraryRequestLoggingFilter.class);
+    logger.setLevel(Level.INFO);
+    logger.setAdditive(false);
+    logger.addAppender(asyncAppender);
+    return asyncAppender;
+  }
+}
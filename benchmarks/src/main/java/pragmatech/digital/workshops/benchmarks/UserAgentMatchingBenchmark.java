@@ -0,0 +1,74 @@
+package pragmatech.digital.workshops.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pragmatech.digital.workshops.lab4.config.UserAgentMatcher;
+
+/**
+ * The User-Agent check of {@code BlockBotRequestFilter} in isolation: the original
+ * lowercase-and-stream implementation versus the compiled {@link UserAgentMatcher},
+ * with and without the verdict cache. Run with {@code -prof gc} to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserAgentMatchingBenchmark {
+
+  private static final List<String> KEYWORDS = Arrays.asList("openai", "claude", "anthropic", "gpt");
+
+  @Param({
+    "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+    "Mozilla/5.0 AppleWebKit/537.36 (KHTML, like Gecko; compatible; GPTBot/1.1; +https://openai.com/gptbot)"
+  })
+  public String userAgent;
+
+  private UserAgentMatcher matcher;
+  private Cache<String, Boolean> verdictCache;
+
+  @Setup
+  public void setUp() {
+    matcher = UserAgentMatcher.compile(KEYWORDS);
+    verdictCache = Caffeine.newBuilder().maximumSize(10_000).build();
+  }
+
+  @Benchmark
+  public boolean lowercaseAndStream() {
+    String lowerCaseUserAgent = Optional
+      .ofNullable(userAgent)
+      .orElse("").toLowerCase();
+
+    return KEYWORDS.stream()
+      .anyMatch(lowerCaseUserAgent::contains);
+  }
+
+  @Benchmark
+  public boolean compiledMatcher() {
+    return matcher.matches(userAgent);
+  }
+
+  @Benchmark
+  public boolean compiledMatcherWithVerdictCache() {
+    // A new String per request, like the servlet container hands out for every header
+    String header = new String(userAgent);
+    return verdictCache.get(header, matcher::matches);
+  }
+}
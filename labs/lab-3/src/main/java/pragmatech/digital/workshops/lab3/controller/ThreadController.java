@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import pragmatech.digital.workshops.lab3.dto.ThreadInfo;
 import pragmatech.digital.workshops.lab3.entity.Book;
 import pragmatech.digital.workshops.lab3.entity.BookStatus;
 import pragmatech.digital.workshops.lab3.repository.BookRepository;
@@ -27,6 +28,15 @@ public class ThreadController {
     return String.valueOf(Thread.currentThread().getId());
   }
 
+  /**
+   * Describe the thread serving this request, including whether it is a virtual thread,
+   * see {@code spring.threads.virtual.enabled}.
+   */
+  @GetMapping("/thread")
+  public ThreadInfo getThreadInfo() {
+    return ThreadInfo.of(Thread.currentThread());
+  }
+
   @GetMapping("/data-access/{isbn}")
   public ResponseEntity<Book> getBookForDataAccessTest(@PathVariable String isbn) {
     return bookRepository.findByIsbn(isbn)
@@ -0,0 +1,15 @@
+package pragmatech.digital.workshops.lab3.dto;
+
+/**
+ * DTO describing the thread that served a request
+ */
+public record ThreadInfo(
+  long id,
+  String name,
+  boolean virtual
+) {
+
+  public static ThreadInfo of(Thread thread) {
+    return new ThreadInfo(thread.threadId(), thread.getName(), thread.isVirtual());
+  }
+}
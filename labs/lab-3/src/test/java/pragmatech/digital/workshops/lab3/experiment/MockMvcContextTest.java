@@ -27,6 +27,7 @@ import pragmatech.digital.workshops.lab3.repository.BookRepository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -99,6 +100,17 @@ class MockMvcContextTest {
       // Assert
       assertThat(controllerThreadId.get()).isEqualTo(testThreadId.get());
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("should report the test thread, which is a platform thread, when using MockMvc")
+    void shouldReportPlatformTestThreadWhenUsingMockMvc() throws Exception {
+      // Act & Assert
+      mockMvc.perform(get("/api/tests/thread"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(Thread.currentThread().threadId()))
+        .andExpect(jsonPath("$.virtual").value(false));
+    }
   }
 
   /**
@@ -0,0 +1,12 @@
+package pragmatech.digital.workshops.lab4reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class Lab4ReactiveApplication {
+
+  public static void main(String[] args) {
+    SpringApplication.run(Lab4ReactiveApplication.class, args);
+  }
+}
@@ -0,0 +1,33 @@
+package pragmatech.digital.workshops.lab4reactive.client;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pragmatech.digital.workshops.lab4reactive.dto.BookMetadataResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client for the OpenLibrary API.
+ */
+@Component
+public class OpenLibraryApiClient {
+
+  private final WebClient webClient;
+
+  public OpenLibraryApiClient(WebClient openLibraryWebClient) {
+    this.webClient = openLibraryWebClient;
+  }
+
+  /**
+   * @param isbn the ISBN to look up
+   * @return the metadata, empty if OpenLibrary does not know the ISBN, or an error signal for
+   * other non-2xx responses
+   */
+  public Mono<BookMetadataResponse> fetchBookByIsbn(String isbn) {
+    return webClient.get()
+      .uri("/isbn/{isbn}", isbn)
+      .retrieve()
+      .bodyToMono(BookMetadataResponse.class)
+      .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.empty());
+  }
+}
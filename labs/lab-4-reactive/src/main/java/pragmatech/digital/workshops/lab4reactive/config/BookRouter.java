@@ -0,0 +1,82 @@
+package pragmatech.digital.workshops.lab4reactive.config;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import pragmatech.digital.workshops.lab4reactive.exception.BookAlreadyExistsException;
+import pragmatech.digital.workshops.lab4reactive.exception.InvalidCursorException;
+import pragmatech.digital.workshops.lab4reactive.handler.BookHandler;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Routes {@code /api/books} to {@link BookHandler} and maps errors to the same RFC 7807 Problem
+ * Details as lab-4's {@code GlobalExceptionHandler}.
+ */
+@Configuration
+public class BookRouter {
+
+  @Bean
+  public RouterFunction<ServerResponse> bookRoutes(BookHandler bookHandler) {
+    return route()
+      .path("/api/books", builder -> builder
+        .GET("", bookHandler::getBooks)
+        .POST("", bookHandler::createBook)
+        .GET("/{id}", bookHandler::getBookById)
+        .PUT("/{id}", bookHandler::updateBook)
+        .DELETE("/{id}", bookHandler::deleteBook))
+      .onError(BookAlreadyExistsException.class, (ex, request) -> problem(HttpStatus.BAD_REQUEST, ex.getMessage(),
+        "Book Already Exists", "book-already-exists"))
+      .onError(InvalidCursorException.class, (ex, request) -> problem(HttpStatus.BAD_REQUEST, ex.getMessage(),
+        "Invalid Cursor", "invalid-cursor"))
+      .onError(OptimisticLockingFailureException.class, (ex, request) -> problem(HttpStatus.CONFLICT,
+        "The book has been modified concurrently, please retry", "Concurrent Modification", "concurrent-modification"))
+      .onError(ConstraintViolationException.class, (ex, request) -> validationProblem((ConstraintViolationException) ex))
+      // Malformed ids, sizes and request bodies
+      .onError(ex -> ex instanceof NumberFormatException || ex instanceof ServerWebInputException,
+        (ex, request) -> badRequest(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Failed to read request")))
+      .build();
+  }
+
+  private static Mono<ServerResponse> problem(HttpStatus status, String detail, String title, String type) {
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+
+    problemDetail.setTitle(title);
+    problemDetail.setType(URI.create("https://api.bookshelf.com/errors/" + type));
+    problemDetail.setProperty("timestamp", Instant.now());
+
+    return ServerResponse.status(status)
+      .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+      .bodyValue(problemDetail);
+  }
+
+  private static Mono<ServerResponse> validationProblem(ConstraintViolationException ex) {
+    Map<String, String> errors = new TreeMap<>();
+    ex.getConstraintViolations().forEach(violation ->
+      errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage()));
+
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid request content.");
+    problemDetail.setProperty("errors", errors);
+
+    return badRequest(problemDetail);
+  }
+
+  private static Mono<ServerResponse> badRequest(ProblemDetail problemDetail) {
+    return ServerResponse.badRequest()
+      .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+      .bodyValue(problemDetail);
+  }
+}
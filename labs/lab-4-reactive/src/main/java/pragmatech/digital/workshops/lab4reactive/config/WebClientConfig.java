@@ -0,0 +1,40 @@
+package pragmatech.digital.workshops.lab4reactive.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+@Configuration
+public class WebClientConfig {
+
+  @Bean
+  public WebClient openLibraryWebClient(
+    WebClient.Builder webClientBuilder,
+    @Value("${book.metadata.api.url:https://openlibrary.org}") String baseUrl,
+    @Value("${book.metadata.api.timeout:5}") int timeoutSeconds) {
+
+    HttpClient httpClient = HttpClient.create()
+      .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
+      .responseTimeout(Duration.ofSeconds(timeoutSeconds))
+      .doOnConnected(conn ->
+        conn.addHandlerLast(new ReadTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS))
+          .addHandlerLast(new WriteTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS)));
+
+    return webClientBuilder
+      .baseUrl(baseUrl)
+      .clientConnector(new ReactorClientHttpConnector(httpClient))
+      .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+      .build();
+  }
+}
@@ -0,0 +1,32 @@
+package pragmatech.digital.workshops.lab4reactive.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The parts of an OpenLibrary edition used to enrich a book.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BookMetadataResponse(
+  String description,
+  @JsonProperty("cover")
+  Map<String, Integer> covers
+) {
+  // Convenience methods
+  public Integer getCoverId() {
+    if (covers != null && covers.containsKey("medium")) {
+      return covers.get("medium");
+    }
+    return null;
+  }
+
+  public String getCoverUrl() {
+    Integer coverId = getCoverId();
+    if (coverId != null) {
+      return "https://covers.openlibrary.org/b/id/" + coverId + "-M.jpg";
+    }
+    return null;
+  }
+}
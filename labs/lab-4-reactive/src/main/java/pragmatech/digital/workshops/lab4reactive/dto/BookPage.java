@@ -0,0 +1,14 @@
+package pragmatech.digital.workshops.lab4reactive.dto;
+
+import java.util.List;
+
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+
+/**
+ * A single keyset page of books. The {@code nextCursor} is an opaque token to request
+ * the following page and is {@code null} on the last page.
+ */
+public record BookPage(
+  List<Book> books,
+  String nextCursor
+) { }
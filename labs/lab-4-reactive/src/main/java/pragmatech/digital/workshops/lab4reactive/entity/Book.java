@@ -0,0 +1,135 @@
+package pragmatech.digital.workshops.lab4reactive.entity;
+
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A book of the {@code books} table, which is owned and migrated by lab-4.
+ * <p>
+ * Ids come from the shared {@code books_seq}, see {@link pragmatech.digital.workshops.lab4reactive.repository.BookIdAssigner}.
+ * Updates check the version, so a background enrichment and a concurrent edit don't overwrite each other.
+ */
+@Table("books")
+public class Book {
+
+  @Id
+  private Long id;
+
+  private String isbn;
+
+  private String title;
+
+  private String author;
+
+  private LocalDate publishedDate;
+
+  private String description;
+
+  private String thumbnailUrl;
+
+  private BookStatus status = BookStatus.AVAILABLE;
+
+  private EnrichmentStatus enrichmentStatus = EnrichmentStatus.PENDING;
+
+  // Null until inserted, which tells Spring Data that a book with an assigned id is still new
+  @Version
+  private Long version;
+
+  public Book() {
+  }
+
+  public Book(String isbn, String title, String author, LocalDate publishedDate) {
+    this.isbn = isbn;
+    this.title = title;
+    this.author = author;
+    this.publishedDate = publishedDate;
+    this.status = BookStatus.AVAILABLE;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getIsbn() {
+    return isbn;
+  }
+
+  public void setIsbn(String isbn) {
+    this.isbn = isbn;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getAuthor() {
+    return author;
+  }
+
+  public void setAuthor(String author) {
+    this.author = author;
+  }
+
+  public LocalDate getPublishedDate() {
+    return publishedDate;
+  }
+
+  public void setPublishedDate(LocalDate publishedDate) {
+    this.publishedDate = publishedDate;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public String getThumbnailUrl() {
+    return thumbnailUrl;
+  }
+
+  public void setThumbnailUrl(String thumbnailUrl) {
+    this.thumbnailUrl = thumbnailUrl;
+  }
+
+  public BookStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(BookStatus status) {
+    this.status = status;
+  }
+
+  public EnrichmentStatus getEnrichmentStatus() {
+    return enrichmentStatus;
+  }
+
+  public void setEnrichmentStatus(EnrichmentStatus enrichmentStatus) {
+    this.enrichmentStatus = enrichmentStatus;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public boolean isAvailable() {
+    return status == BookStatus.AVAILABLE;
+  }
+}
@@ -0,0 +1,86 @@
+package pragmatech.digital.workshops.lab4reactive.handler;
+
+import java.util.Set;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.http.ETag;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import pragmatech.digital.workshops.lab4reactive.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4reactive.dto.BookUpdateRequest;
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+import pragmatech.digital.workshops.lab4reactive.service.BookService;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional handlers for {@code /api/books}, the reactive counterpart of lab-4's {@code BookController}.
+ */
+@Component
+public class BookHandler {
+
+  private final BookService bookService;
+  private final Validator validator;
+
+  public BookHandler(BookService bookService, Validator validator) {
+    this.bookService = bookService;
+    this.validator = validator;
+  }
+
+  public Mono<ServerResponse> getBooks(ServerRequest request) {
+    String cursor = request.queryParam("cursor").orElse(null);
+
+    return Mono.fromCallable(() -> request.queryParam("size").map(Integer::parseInt).orElse(50))
+      .flatMap(size -> bookService.getBooks(cursor, size))
+      .flatMap(page -> ServerResponse.ok().bodyValue(page));
+  }
+
+  public Mono<ServerResponse> getBookById(ServerRequest request) {
+    return bookId(request)
+      .flatMap(bookService::getBookById)
+      .flatMap(book -> ServerResponse.ok().eTag(eTagOf(book)).bodyValue(book))
+      .switchIfEmpty(ServerResponse.notFound().build());
+  }
+
+  public Mono<ServerResponse> createBook(ServerRequest request) {
+    return request.bodyToMono(BookCreationRequest.class)
+      .map(this::validate)
+      .flatMap(bookService::createBook)
+      .flatMap(id -> ServerResponse.created(request.uriBuilder().path("/{id}").build(id)).build());
+  }
+
+  public Mono<ServerResponse> updateBook(ServerRequest request) {
+    return bookId(request)
+      .zipWith(request.bodyToMono(BookUpdateRequest.class).map(this::validate))
+      .flatMap(idAndBody -> bookService.updateBook(idAndBody.getT1(), idAndBody.getT2()))
+      .flatMap(book -> ServerResponse.ok().eTag(eTagOf(book)).bodyValue(book))
+      .switchIfEmpty(ServerResponse.notFound().build());
+  }
+
+  public Mono<ServerResponse> deleteBook(ServerRequest request) {
+    return bookId(request)
+      .flatMap(bookService::deleteBook)
+      .flatMap(deleted -> deleted
+        ? ServerResponse.noContent().build()
+        : ServerResponse.notFound().build());
+  }
+
+  private <T> T validate(T body) {
+    Set<ConstraintViolation<T>> violations = validator.validate(body);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    return body;
+  }
+
+  private static Mono<Long> bookId(ServerRequest request) {
+    // Deferred, so a malformed id becomes an error signal the router maps to 400
+    return Mono.fromCallable(() -> Long.valueOf(request.pathVariable("id")));
+  }
+
+  private static String eTagOf(Book book) {
+    return ETag.quoteETagIfNecessary(String.valueOf(book.getVersion()));
+  }
+}
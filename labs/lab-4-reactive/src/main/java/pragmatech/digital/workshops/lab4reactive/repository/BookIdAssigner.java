@@ -0,0 +1,41 @@
+package pragmatech.digital.workshops.lab4reactive.repository;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+import reactor.core.publisher.Mono;
+
+/**
+ * Assigns new books an id from {@code books_seq}, as the {@code id} column has no default.
+ * <p>
+ * The sequence hands out blocks of 50 and lab-4 uses all ids of a block it fetched. Using the
+ * fetched value as id keeps the ids of both applications disjoint, at the price of 49 unused ids
+ * per insert.
+ */
+@Component
+class BookIdAssigner implements BeforeConvertCallback<Book> {
+
+  private final DatabaseClient databaseClient;
+
+  BookIdAssigner(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  @Override
+  public Publisher<Book> onBeforeConvert(Book book, SqlIdentifier table) {
+    if (book.getId() != null) {
+      return Mono.just(book);
+    }
+
+    return databaseClient.sql("SELECT nextval('books_seq')")
+      .map(row -> row.get(0, Long.class))
+      .one()
+      .map(id -> {
+        book.setId(id);
+        return book;
+      });
+  }
+}
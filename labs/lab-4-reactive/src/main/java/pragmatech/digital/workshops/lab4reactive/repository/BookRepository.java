@@ -0,0 +1,14 @@
+package pragmatech.digital.workshops.lab4reactive.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+import reactor.core.publisher.Flux;
+
+public interface BookRepository extends R2dbcRepository<Book, Long> {
+
+  /**
+   * Keyset pagination: the books following the given id, in id order.
+   */
+  Flux<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
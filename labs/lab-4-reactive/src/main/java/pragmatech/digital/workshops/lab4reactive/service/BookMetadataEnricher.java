@@ -0,0 +1,124 @@
+package pragmatech.digital.workshops.lab4reactive.service;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import pragmatech.digital.workshops.lab4reactive.client.OpenLibraryApiClient;
+import pragmatech.digital.workshops.lab4reactive.entity.EnrichmentStatus;
+import pragmatech.digital.workshops.lab4reactive.repository.BookRepository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+/**
+ * Fills in the thumbnail and description of already saved books in the background, without
+ * blocking any thread.
+ * <p>
+ * Books are queued in a bounded sink and enriched by at most {@code book.metadata.enrichment.concurrency}
+ * concurrent OpenLibrary requests. When the queue is full, or stays contended by concurrent
+ * emissions for longer than 100 ms, the book is marked as {@link EnrichmentStatus#FAILED}.
+ */
+@Service
+public class BookMetadataEnricher implements DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookMetadataEnricher.class);
+
+  private static final Duration MAX_EMISSION_CONTENTION = Duration.ofMillis(100);
+
+  private final OpenLibraryApiClient openLibraryApiClient;
+  private final BookRepository bookRepository;
+  private final Sinks.Many<EnrichmentTask> queue;
+  private final Disposable worker;
+
+  public BookMetadataEnricher(
+    OpenLibraryApiClient openLibraryApiClient,
+    BookRepository bookRepository,
+    @Value("${book.metadata.enrichment.concurrency:4}") int concurrency,
+    @Value("${book.metadata.enrichment.queue-capacity:1000}") int queueCapacity) {
+    this.openLibraryApiClient = openLibraryApiClient;
+    this.bookRepository = bookRepository;
+
+    this.queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<EnrichmentTask>get(queueCapacity).get());
+    this.worker = queue.asFlux()
+      // Start each enrichment on another thread, so an emitting request only holds the sink briefly
+      .flatMap(task -> enrich(task.bookId(), task.isbn()).subscribeOn(Schedulers.parallel()), concurrency)
+      .subscribe();
+  }
+
+  /**
+   * Queue the metadata enrichment of a saved book.
+   *
+   * @param bookId the id of the saved book
+   * @param isbn   the ISBN to fetch the metadata for
+   * @return completes once the book is queued, or marked as failed if the queue is full
+   */
+  public Mono<Void> enrichAsync(Long bookId, String isbn) {
+    EnrichmentTask task = new EnrichmentTask(bookId, isbn);
+    // Concurrent requests may emit at the same time, the loser retries for a bounded time. Not emitNext,
+    // which would terminate the sink and with it the worker once the queue is full.
+    Sinks.EmitFailureHandler retryConcurrentEmission = Sinks.EmitFailureHandler.busyLooping(MAX_EMISSION_CONTENTION);
+    Sinks.EmitResult result;
+    do {
+      result = queue.tryEmitNext(task);
+    }
+    while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED
+      && retryConcurrentEmission.onEmitFailure(SignalType.ON_NEXT, result));
+
+    if (result.isFailure()) {
+      logger.warn("Enrichment queue is full or busy, skipping metadata for book {} (ISBN {})", bookId, isbn);
+      return updateEnrichment(bookId, null, null, EnrichmentStatus.FAILED);
+    }
+
+    return Mono.empty();
+  }
+
+  Mono<Void> enrich(Long bookId, String isbn) {
+    return openLibraryApiClient.fetchBookByIsbn(isbn)
+      .flatMap(metadata ->
+        updateEnrichment(bookId, metadata.getCoverUrl(), metadata.description(), EnrichmentStatus.COMPLETED)
+          .thenReturn(true))
+      .switchIfEmpty(Mono.defer(() -> updateEnrichment(bookId, null, null, EnrichmentStatus.FAILED).thenReturn(true)))
+      .onErrorResume(ex -> {
+        logger.warn("Failed to enrich book {} (ISBN {}): {}", bookId, isbn, ex.getMessage());
+        return updateEnrichment(bookId, null, null, EnrichmentStatus.FAILED).thenReturn(false);
+      })
+      // Never end the worker because a single book could not be updated
+      .onErrorResume(ex -> {
+        logger.warn("Failed to update enrichment status of book {}: {}", bookId, ex.getMessage());
+        return Mono.empty();
+      })
+      .then();
+  }
+
+  private Mono<Void> updateEnrichment(Long bookId, String thumbnailUrl, String description, EnrichmentStatus status) {
+    return bookRepository.findById(bookId)
+      .flatMap(book -> {
+        if (status == EnrichmentStatus.COMPLETED) {
+          book.setThumbnailUrl(thumbnailUrl);
+          book.setDescription(description);
+        }
+        book.setEnrichmentStatus(status);
+        return bookRepository.save(book);
+      })
+      // The book was edited in the meantime, reload it, the enrichment fields are still ours to set
+      .retryWhen(Retry.max(1).filter(OptimisticLockingFailureException.class::isInstance))
+      .then();
+  }
+
+  @Override
+  public void destroy() {
+    worker.dispose();
+  }
+
+  private record EnrichmentTask(Long bookId, String isbn) {
+  }
+}
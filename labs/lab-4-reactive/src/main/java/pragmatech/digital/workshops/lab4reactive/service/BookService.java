@@ -0,0 +1,132 @@
+package pragmatech.digital.workshops.lab4reactive.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import io.r2dbc.postgresql.api.PostgresqlException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pragmatech.digital.workshops.lab4reactive.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4reactive.dto.BookPage;
+import pragmatech.digital.workshops.lab4reactive.dto.BookUpdateRequest;
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+import pragmatech.digital.workshops.lab4reactive.exception.BookAlreadyExistsException;
+import pragmatech.digital.workshops.lab4reactive.exception.InvalidCursorException;
+import pragmatech.digital.workshops.lab4reactive.repository.BookRepository;
+import reactor.core.publisher.Mono;
+
+@Service
+public class BookService {
+
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final String ISBN_CONSTRAINT = "books_isbn_key";
+
+  private final BookRepository bookRepository;
+  private final BookMetadataEnricher bookMetadataEnricher;
+
+  public BookService(BookRepository bookRepository, BookMetadataEnricher bookMetadataEnricher) {
+    this.bookRepository = bookRepository;
+    this.bookMetadataEnricher = bookMetadataEnricher;
+  }
+
+  /**
+   * Create a book and queue the enrichment of its metadata.
+   * <p>
+   * The unique constraint on the ISBN detects duplicates, so a create is a single insert.
+   *
+   * @return the id of the new book
+   * @throws BookAlreadyExistsException if there already is a book with the given ISBN
+   */
+  public Mono<Long> createBook(BookCreationRequest request) {
+    Book book = new Book(
+      request.isbn(),
+      request.title(),
+      request.author(),
+      request.publishedDate()
+    );
+
+    return bookRepository.save(book)
+      .onErrorMap(BookService::isIsbnConflict, ex -> new BookAlreadyExistsException(request.isbn()))
+      // Thumbnail and description are filled in the background, see Book#getEnrichmentStatus()
+      .flatMap(savedBook -> bookMetadataEnricher.enrichAsync(savedBook.getId(), request.isbn())
+        .thenReturn(savedBook.getId()));
+  }
+
+  public Mono<BookPage> getBooks(String cursor, int size) {
+    int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+    // Fetch one extra row to find out whether there is a next page
+    return Mono.fromCallable(() -> decodeCursor(cursor))
+      .flatMap(lastId -> bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(pageSize + 1)).collectList())
+      .map(books -> {
+        if (books.size() <= pageSize) {
+          return new BookPage(books, null);
+        }
+
+        List<Book> page = books.subList(0, pageSize);
+        return new BookPage(page, encodeCursor(page.get(pageSize - 1).getId()));
+      });
+  }
+
+  public Mono<Book> getBookById(Long id) {
+    return bookRepository.findById(id);
+  }
+
+  /**
+   * Update the mutable fields of a book.
+   *
+   * @return the updated book, empty if there is no book with the given id
+   */
+  @Transactional
+  public Mono<Book> updateBook(Long id, BookUpdateRequest request) {
+    return bookRepository.findById(id)
+      .flatMap(book -> {
+        book.setTitle(request.title());
+        book.setAuthor(request.author());
+        book.setPublishedDate(request.publishedDate());
+        book.setStatus(request.status());
+        // Fails with an OptimisticLockingFailureException if the book changed since it was read
+        return bookRepository.save(book);
+      });
+  }
+
+  /**
+   * Delete a book.
+   *
+   * @return whether a book with the given id existed
+   */
+  @Transactional
+  public Mono<Boolean> deleteBook(Long id) {
+    return bookRepository.findById(id)
+      .flatMap(book -> bookRepository.delete(book).thenReturn(true))
+      .defaultIfEmpty(false);
+  }
+
+  private static boolean isIsbnConflict(Throwable ex) {
+    return ex instanceof DataIntegrityViolationException
+      && ex.getCause() instanceof PostgresqlException violation
+      && violation.getErrorDetails().getConstraintName().filter(ISBN_CONSTRAINT::equals).isPresent();
+  }
+
+  private static String encodeCursor(Long lastId) {
+    return Base64.getUrlEncoder()
+      .withoutPadding()
+      .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static long decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0L;
+    }
+
+    try {
+      return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+    }
+    catch (IllegalArgumentException ex) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
+}
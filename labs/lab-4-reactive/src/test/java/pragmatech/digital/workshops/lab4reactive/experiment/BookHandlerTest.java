@@ -0,0 +1,181 @@
+package pragmatech.digital.workshops.lab4reactive.experiment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import pragmatech.digital.workshops.lab4reactive.config.BookRouter;
+import pragmatech.digital.workshops.lab4reactive.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4reactive.dto.BookPage;
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+import pragmatech.digital.workshops.lab4reactive.exception.BookAlreadyExistsException;
+import pragmatech.digital.workshops.lab4reactive.handler.BookHandler;
+import pragmatech.digital.workshops.lab4reactive.service.BookService;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the routes and error mapping of the functional book API without starting a server.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookHandlerTest {
+
+  private static final String UPDATE_REQUEST = """
+    {"title": "Effective Java", "author": "Joshua Bloch", "publishedDate": "2018-01-06", "status": "AVAILABLE"}
+    """;
+
+  @Mock
+  private BookService bookService;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    BookHandler bookHandler = new BookHandler(bookService, validator);
+    webTestClient = WebTestClient.bindToRouterFunction(new BookRouter().bookRoutes(bookHandler)).build();
+  }
+
+  @Test
+  void shouldReturnPageOfBooks() {
+    // Arrange
+    when(bookService.getBooks("MTA", 10)).thenReturn(Mono.just(new BookPage(List.of(book()), "NDI")));
+
+    // Act & Assert
+    webTestClient.get().uri("/api/books?cursor=MTA&size=10")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.books[0].title").isEqualTo("Effective Java")
+      .jsonPath("$.nextCursor").isEqualTo("NDI");
+  }
+
+  @Test
+  void shouldReturnBookWithVersionAsETag() {
+    // Arrange
+    when(bookService.getBookById(42L)).thenReturn(Mono.just(book()));
+
+    // Act & Assert
+    webTestClient.get().uri("/api/books/42")
+      .exchange()
+      .expectStatus().isOk()
+      .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+      .expectBody()
+      .jsonPath("$.isbn").isEqualTo("978-0134685991");
+  }
+
+  @Test
+  void shouldReturnNotFoundForUnknownBook() {
+    // Arrange
+    when(bookService.getBookById(42L)).thenReturn(Mono.empty());
+    when(bookService.deleteBook(42L)).thenReturn(Mono.just(false));
+
+    // Act & Assert
+    webTestClient.get().uri("/api/books/42").exchange().expectStatus().isNotFound();
+    webTestClient.delete().uri("/api/books/42").exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  void shouldCreateBookAndReturnLocation() {
+    // Arrange
+    when(bookService.createBook(any(BookCreationRequest.class))).thenReturn(Mono.just(42L));
+
+    // Act & Assert
+    webTestClient.post().uri("/api/books")
+      .contentType(MediaType.APPLICATION_JSON)
+      .bodyValue("""
+        {"isbn": "978-0134685991", "title": "Effective Java", "author": "Joshua Bloch", "publishedDate": "2018-01-06"}
+        """)
+      .exchange()
+      .expectStatus().isCreated()
+      .expectHeader().value(HttpHeaders.LOCATION, location -> assertThat(location).endsWith("/api/books/42"));
+  }
+
+  @Test
+  void shouldRejectInvalidBookWithValidationErrors() {
+    // Act & Assert
+    webTestClient.post().uri("/api/books")
+      .contentType(MediaType.APPLICATION_JSON)
+      .bodyValue("""
+        {"isbn": "invalid", "title": "", "author": "Joshua Bloch", "publishedDate": "2018-01-06"}
+        """)
+      .exchange()
+      .expectStatus().isBadRequest()
+      .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+      .expectBody()
+      .jsonPath("$.errors.isbn").isEqualTo("ISBN must be in format 123-1234567890")
+      .jsonPath("$.errors.title").isEqualTo("Title is required");
+
+    verifyNoInteractions(bookService);
+  }
+
+  @Test
+  void shouldMapDuplicateIsbnToProblemDetail() {
+    // Arrange
+    when(bookService.createBook(any(BookCreationRequest.class)))
+      .thenReturn(Mono.error(new BookAlreadyExistsException("978-0134685991")));
+
+    // Act & Assert
+    webTestClient.post().uri("/api/books")
+      .contentType(MediaType.APPLICATION_JSON)
+      .bodyValue("""
+        {"isbn": "978-0134685991", "title": "Effective Java", "author": "Joshua Bloch", "publishedDate": "2018-01-06"}
+        """)
+      .exchange()
+      .expectStatus().isBadRequest()
+      .expectBody()
+      .jsonPath("$.title").isEqualTo("Book Already Exists")
+      .jsonPath("$.type").isEqualTo("https://api.bookshelf.com/errors/book-already-exists");
+  }
+
+  @Test
+  void shouldMapConcurrentModificationToConflict() {
+    // Arrange
+    when(bookService.updateBook(eq(42L), any()))
+      .thenReturn(Mono.error(new OptimisticLockingFailureException("Version mismatch")));
+
+    // Act & Assert
+    webTestClient.put().uri("/api/books/42")
+      .contentType(MediaType.APPLICATION_JSON)
+      .bodyValue(UPDATE_REQUEST)
+      .exchange()
+      .expectStatus().isEqualTo(409)
+      .expectBody()
+      .jsonPath("$.title").isEqualTo("Concurrent Modification");
+  }
+
+  @Test
+  void shouldRejectMalformedIdAndSize() {
+    // Act & Assert
+    webTestClient.get().uri("/api/books/abc")
+      .exchange()
+      .expectStatus().isBadRequest();
+    webTestClient.get().uri("/api/books?size=ten")
+      .exchange()
+      .expectStatus().isBadRequest();
+
+    verifyNoInteractions(bookService);
+  }
+
+  private static Book book() {
+    Book book = new Book("978-0134685991", "Effective Java", "Joshua Bloch", LocalDate.of(2018, 1, 6));
+    book.setId(42L);
+    book.setVersion(3L);
+    return book;
+  }
+}
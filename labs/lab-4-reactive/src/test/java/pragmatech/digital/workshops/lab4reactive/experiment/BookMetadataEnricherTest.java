@@ -0,0 +1,161 @@
+package pragmatech.digital.workshops.lab4reactive.experiment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import pragmatech.digital.workshops.lab4reactive.client.OpenLibraryApiClient;
+import pragmatech.digital.workshops.lab4reactive.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4reactive.entity.Book;
+import pragmatech.digital.workshops.lab4reactive.entity.EnrichmentStatus;
+import pragmatech.digital.workshops.lab4reactive.repository.BookRepository;
+import pragmatech.digital.workshops.lab4reactive.service.BookMetadataEnricher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookMetadataEnricherTest {
+
+  private static final String ISBN = "978-0134685991";
+
+  @Mock
+  private OpenLibraryApiClient openLibraryApiClient;
+
+  @Mock
+  private BookRepository bookRepository;
+
+  private BookMetadataEnricher cut;
+
+  @AfterEach
+  void tearDown() {
+    cut.destroy();
+  }
+
+  @Test
+  void shouldCompleteEnrichmentWithFetchedMetadata() {
+    // Arrange
+    cut = new BookMetadataEnricher(openLibraryApiClient, bookRepository, 4, 10);
+    Book book = book();
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(Mono.just(metadata()));
+    when(bookRepository.findById(42L)).thenReturn(Mono.just(book));
+    when(bookRepository.save(book)).thenReturn(Mono.just(book));
+
+    // Act
+    StepVerifier.create(cut.enrichAsync(42L, ISBN)).verifyComplete();
+
+    // Assert
+    verify(bookRepository, timeout(1_000)).save(book);
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.COMPLETED);
+    assertThat(book.getDescription()).isEqualTo("A programming classic");
+  }
+
+  @Test
+  void shouldMarkBookAsFailedWhenIsbnIsUnknownOrApiFails() {
+    // Arrange
+    cut = new BookMetadataEnricher(openLibraryApiClient, bookRepository, 4, 10);
+    Book unknown = book();
+    Book failing = book();
+    when(openLibraryApiClient.fetchBookByIsbn("unknown")).thenReturn(Mono.empty());
+    when(openLibraryApiClient.fetchBookByIsbn("failing")).thenReturn(Mono.error(new IllegalStateException("Timeout")));
+    when(bookRepository.findById(1L)).thenReturn(Mono.just(unknown));
+    when(bookRepository.findById(2L)).thenReturn(Mono.just(failing));
+    when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    // Act
+    cut.enrichAsync(1L, "unknown").block();
+    cut.enrichAsync(2L, "failing").block();
+
+    // Assert
+    verify(bookRepository, timeout(1_000).times(2)).save(any(Book.class));
+    assertThat(unknown.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED);
+    assertThat(failing.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED);
+    assertThat(failing.getDescription()).isNull();
+  }
+
+  @Test
+  void shouldRetryOnceWhenBookWasModifiedConcurrently() {
+    // Arrange
+    cut = new BookMetadataEnricher(openLibraryApiClient, bookRepository, 4, 10);
+    Book book = book();
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(Mono.just(metadata()));
+    when(bookRepository.findById(42L)).thenReturn(Mono.just(book));
+    when(bookRepository.save(book))
+      .thenReturn(Mono.error(new OptimisticLockingFailureException("Version mismatch")))
+      .thenReturn(Mono.just(book));
+
+    // Act
+    cut.enrichAsync(42L, ISBN).block();
+
+    // Assert
+    verify(bookRepository, timeout(1_000).times(2)).save(book);
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.COMPLETED);
+  }
+
+  @Test
+  void shouldMarkBookAsFailedWhenQueueIsFull() {
+    // Arrange
+    cut = new BookMetadataEnricher(openLibraryApiClient, bookRepository, 1, 1);
+    Sinks.One<BookMetadataResponse> pending = Sinks.one();
+    Book overflowing = book();
+    when(openLibraryApiClient.fetchBookByIsbn(any())).thenReturn(pending.asMono());
+    when(bookRepository.findById(3L)).thenReturn(Mono.just(overflowing));
+    when(bookRepository.save(overflowing)).thenReturn(Mono.just(overflowing));
+
+    // Act
+    cut.enrichAsync(1L, "in-flight").block();
+    cut.enrichAsync(2L, "queued").block();
+    cut.enrichAsync(3L, "overflowing").block(Duration.ofSeconds(1));
+
+    // Assert
+    ArgumentCaptor<Book> saved = ArgumentCaptor.forClass(Book.class);
+    verify(bookRepository, times(1)).save(saved.capture());
+    assertThat(saved.getAllValues()).isEqualTo(List.of(overflowing));
+    assertThat(overflowing.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED);
+    verify(bookRepository, never()).findById(2L);
+  }
+
+  @Test
+  void shouldQueueBooksEmittedConcurrently() throws Exception {
+    // Arrange
+    cut = new BookMetadataEnricher(openLibraryApiClient, bookRepository, 4, 1_000);
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(Mono.empty());
+    when(bookRepository.findById(any(Long.class))).thenReturn(Mono.empty());
+
+    // Act
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (long id = 0; id < 400; id++) {
+        long bookId = id;
+        executor.execute(() -> cut.enrichAsync(bookId, ISBN).block());
+      }
+    }
+
+    // Assert
+    verify(openLibraryApiClient, timeout(1_000).times(400)).fetchBookByIsbn(ISBN);
+  }
+
+  private static Book book() {
+    return new Book(ISBN, "Effective Java", "Joshua Bloch", LocalDate.of(2018, 1, 6));
+  }
+
+  private static BookMetadataResponse metadata() {
+    return new BookMetadataResponse("A programming classic", null);
+  }
+}
@@ -0,0 +1,227 @@
+package pragmatech.digital.workshops.lab4reactive.experiment;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import pragmatech.digital.workshops.lab4.Lab4Application;
+import pragmatech.digital.workshops.lab4reactive.Lab4ReactiveApplication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same closed-loop load against the blocking lab-4 API (Spring MVC, JPA, Tomcat) and this
+ * reactive variant (WebFlux, R2DBC, Netty), both reading the same PostgreSQL database.
+ * <p>
+ * lab-4 also applies discounts to every page and authenticates single book reads, so the numbers
+ * compare the whole request path rather than the I/O model alone.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=MvcVersusReactiveLoadIT} after installing
+ * lab-4 with {@code ./mvnw install -DskipTests} in {@code labs/lab-4}, optionally with
+ * {@code -Dbenchmark.clients=500}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MvcVersusReactiveLoadIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(MvcVersusReactiveLoadIT.class);
+
+  private static final int BOOKS = 10_000;
+  private static final int PAGE_SIZE = 20;
+  private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200);
+  private static final int REQUESTS_PER_CLIENT = 25;
+
+  private static final String USER_CREDENTIALS = "Basic " + Base64.getEncoder()
+    .encodeToString("user:user".getBytes(StandardCharsets.UTF_8));
+
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+    .withDatabaseName("testdb")
+    .withUsername("test")
+    .withPassword("test")
+    .withInitScript("init-postgres.sql");
+
+  private static final Map<String, Result> results = new ConcurrentHashMap<>();
+
+  private static ConfigurableApplicationContext mvc;
+  private static ConfigurableApplicationContext reactive;
+  private static List<Long> bookIds;
+
+  @BeforeAll
+  static void startApplications() {
+    postgres.start();
+
+    // lab-4 creates the schema with Flyway, both applications share it
+    mvc = new SpringApplicationBuilder(Lab4Application.class)
+      .web(WebApplicationType.SERVLET)
+      // Arguments, as default properties would not override the application.yml
+      .run(
+        // Both modules ship an application.yml, pick the one of lab-4
+        "--spring.config.location=" + lab4Configuration(),
+        "--spring.autoconfigure.exclude="
+          + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+        "--server.port=0",
+        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+        "--spring.datasource.username=" + postgres.getUsername(),
+        "--spring.datasource.password=" + postgres.getPassword(),
+        "--book.rate-limit.enabled=false",
+        "--book.metadata.api.url=http://localhost:1");
+
+    JdbcTemplate jdbcTemplate = mvc.getBean(JdbcTemplate.class);
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'), 'bench-' || g, 'Title ' || g, 'Author ' || g, DATE '2000-01-01' + g,
+             'AVAILABLE', 'COMPLETED'
+      FROM generate_series(1, ?) g
+      """, BOOKS);
+    bookIds = jdbcTemplate.queryForList("SELECT id FROM books ORDER BY id", Long.class);
+
+    reactive = new SpringApplicationBuilder(Lab4ReactiveApplication.class)
+      .web(WebApplicationType.REACTIVE)
+      .run(
+        "--spring.autoconfigure.exclude="
+          + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration,"
+          + "org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration,"
+          + "org.springframework.boot.actuate.autoconfigure.security.reactive.ReactiveManagementWebSecurityAutoConfiguration",
+        "--server.port=0",
+        "--spring.r2dbc.url=r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort()
+          + "/" + postgres.getDatabaseName(),
+        "--spring.r2dbc.username=" + postgres.getUsername(),
+        "--spring.r2dbc.password=" + postgres.getPassword(),
+        "--book.metadata.api.url=http://localhost:1");
+  }
+
+  @AfterAll
+  static void stopApplications() {
+    logger.info("{} clients x {} requests, {} books", CLIENTS, REQUESTS_PER_CLIENT, BOOKS);
+    results.forEach((name, result) -> logger.info("{}: {} requests/s, p50 {} ms, p99 {} ms, max {} ms",
+      name, result.throughput(), result.p50Millis(), result.p99Millis(), result.maxMillis()));
+
+    if (reactive != null) {
+      reactive.close();
+    }
+    if (mvc != null) {
+      mvc.close();
+    }
+    postgres.stop();
+  }
+
+  @Test
+  void shouldServeBookPages() {
+    results.put("MVC pages", runLoad(mvc, MvcVersusReactiveLoadIT::randomPage));
+    results.put("Reactive pages", runLoad(reactive, MvcVersusReactiveLoadIT::randomPage));
+  }
+
+  @Test
+  void shouldServeSingleBooks() {
+    results.put("MVC single books", runLoad(mvc, MvcVersusReactiveLoadIT::randomBook));
+    results.put("Reactive single books", runLoad(reactive, MvcVersusReactiveLoadIT::randomBook));
+  }
+
+  private static String randomPage() {
+    // A cursor is the Base64 encoded id of the last book of the previous page
+    long lastId = bookIds.get(ThreadLocalRandom.current().nextInt(BOOKS - PAGE_SIZE));
+    String cursor = Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    return "/api/books?size=" + PAGE_SIZE + "&cursor=" + cursor;
+  }
+
+  private static String randomBook() {
+    return "/api/books/" + bookIds.get(ThreadLocalRandom.current().nextInt(BOOKS));
+  }
+
+  private static Result runLoad(ConfigurableApplicationContext application, Supplier<String> paths) {
+    int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+    Supplier<HttpRequest> requests = () -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + paths.get()))
+      .header(HttpHeaders.AUTHORIZATION, USER_CREDENTIALS)
+      .build();
+
+    try (HttpClient client = HttpClient.newHttpClient()) {
+      // Warm up the JIT, the connection pools and the authentication cache before measuring
+      run(client, requests, Math.min(CLIENTS, 50));
+      return run(client, requests, CLIENTS);
+    }
+  }
+
+  private static Result run(HttpClient client, Supplier<HttpRequest> requests, int clients) {
+    long[] latencies = new long[clients * REQUESTS_PER_CLIENT];
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+
+    long start = System.nanoTime();
+    CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+    for (int c = 0; c < clients; c++) {
+      done[c] = sendSequentially(client, requests, REQUESTS_PER_CLIENT, (latency, response) -> {
+        latencies[next.getAndIncrement()] = latency;
+        if (response == null || response.statusCode() != 200) {
+          failed.incrementAndGet();
+        }
+      });
+    }
+    CompletableFuture.allOf(done).join();
+    long elapsed = System.nanoTime() - start;
+
+    assertThat(failed).as("failed requests").hasValue(0);
+
+    Arrays.sort(latencies);
+    return new Result(
+      latencies.length * 1_000_000_000L / elapsed,
+      latencies[latencies.length / 2] / 1_000_000,
+      latencies[(int) (latencies.length * 0.99)] / 1_000_000,
+      latencies[latencies.length - 1] / 1_000_000);
+  }
+
+  private static CompletableFuture<Void> sendSequentially(HttpClient client, Supplier<HttpRequest> requests,
+                                                          int remaining, BiConsumer<Long, HttpResponse<String>> recorder) {
+    if (remaining == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    long start = System.nanoTime();
+    return client.sendAsync(requests.get(), HttpResponse.BodyHandlers.ofString())
+      .handle((response, ex) -> {
+        recorder.accept(System.nanoTime() - start, response);
+        return null;
+      })
+      .thenCompose(ignored -> sendSequentially(client, requests, remaining - 1, recorder));
+  }
+
+  private static String lab4Configuration() {
+    URL location = Lab4Application.class.getProtectionDomain().getCodeSource().getLocation();
+    String path = location.toExternalForm();
+    return path.endsWith(".jar") ? "jar:" + path + "!/application.yml" : path + "application.yml";
+  }
+
+  private record Result(long throughput, long p50Millis, long p99Millis, long maxMillis) {
+  }
+}
@@ -0,0 +1,102 @@
+package pragmatech.digital.workshops.lab4.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache in front of the {@link OpenLibraryApiClient}.
+ * <p>
+ * Entries are bounded in size (W-TinyLFU eviction) and expire individually: found books live
+ * for {@code book.metadata.cache.ttl}, unknown ISBNs (404) for the shorter
+ * {@code book.metadata.cache.negative-ttl}. Concurrent misses for the same ISBN share a single
+ * in-flight request. Failed lookups are not cached.
+ * <p>
+ * ISBNs are looked up without hyphens and spaces, so {@code 978-0132350884} from a stored book and
+ * {@code 9780132350884} from the warm-up share one entry.
+ * <p>
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics with {@code cache=bookMetadata}.
+ */
+@Component
+public class BookMetadataCache {
+
+  private static final Pattern ISBN_SEPARATORS = Pattern.compile("[\\s-]");
+
+  private final AsyncLoadingCache<String, Optional<BookMetadataResponse>> cache;
+
+  public BookMetadataCache(
+    OpenLibraryApiClient openLibraryApiClient,
+    MeterRegistry meterRegistry,
+    @Value("${book.metadata.cache.ttl:24h}") Duration ttl,
+    @Value("${book.metadata.cache.negative-ttl:10m}") Duration negativeTtl,
+    @Value("${book.metadata.cache.maximum-size:10000}") long maximumSize) {
+
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfter(new MetadataExpiry(ttl, negativeTtl))
+      .recordStats()
+      .buildAsync((isbn, executor) -> Mono.defer(() -> openLibraryApiClient.fetchBookByIsbn(isbn))
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.just(Optional.empty()))
+        .toFuture());
+
+    CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "bookMetadata");
+  }
+
+  /**
+   * Look up the metadata for an ISBN, blocking until it is available.
+   *
+   * @param isbn the ISBN to look up
+   * @return the metadata, or {@code null} if OpenLibrary does not know the ISBN
+   */
+  public BookMetadataResponse getBookByIsbn(String isbn) {
+    return fetchBookByIsbn(isbn).block();
+  }
+
+  /**
+   * Non-blocking variant of {@link #getBookByIsbn(String)}. Cancelling the returned
+   * {@link Mono} does not cancel the shared upstream request.
+   *
+   * @param isbn the ISBN to look up
+   * @return the metadata, or an empty {@link Mono} if OpenLibrary does not know the ISBN
+   */
+  public Mono<BookMetadataResponse> fetchBookByIsbn(String isbn) {
+    String key = ISBN_SEPARATORS.matcher(isbn).replaceAll("");
+
+    return Mono.fromFuture(() -> cache.get(key), true)
+      .flatMap(Mono::justOrEmpty);
+  }
+
+  private record MetadataExpiry(Duration ttl, Duration negativeTtl)
+    implements Expiry<String, Optional<BookMetadataResponse>> {
+
+    @Override
+    public long expireAfterCreate(String isbn, Optional<BookMetadataResponse> metadata, long currentTime) {
+      return metadata.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String isbn, Optional<BookMetadataResponse> metadata, long currentTime,
+                                  long currentDuration) {
+      return expireAfterCreate(isbn, metadata, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String isbn, Optional<BookMetadataResponse> metadata, long currentTime,
+                                long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package pragmatech.digital.workshops.lab4.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes OpenLibrary edition responses into {@link BookMetadataResponse} while they arrive,
+ * instead of aggregating the whole body and binding it with the {@code ObjectMapper}.
+ * <p>
+ * Every network buffer is fed to Jackson's non-blocking parser and released right away. Only
+ * {@code key}, {@code title}, {@code description} and {@code cover} are read, all other
+ * properties, such as {@code source_records} or {@code table_of_contents}, are skipped token by
+ * token without creating strings, lists or maps for them. As nothing is aggregated,
+ * {@code maxInMemorySize} does not limit the size of the response.
+ * <p>
+ * {@code description} is accepted both as a plain string and as OpenLibrary's
+ * {@code {"type": "/type/text", "value": "..."}} object.
+ */
+public class BookMetadataDecoder implements Decoder<BookMetadataResponse> {
+
+  private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON);
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+    return elementType.toClass() == BookMetadataResponse.class
+      && (mimeType == null || MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType)));
+  }
+
+  @Override
+  public List<MimeType> getDecodableMimeTypes() {
+    return MIME_TYPES;
+  }
+
+  @Override
+  public Flux<BookMetadataResponse> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                           @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+    return Flux.from(decodeToMono(inputStream, elementType, mimeType, hints));
+  }
+
+  @Override
+  public Mono<BookMetadataResponse> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                                 @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+    return Flux.from(inputStream)
+      .reduceWith(this::newExtraction, (extraction, buffer) -> {
+        try {
+          extraction.feed(buffer);
+          return extraction;
+        }
+        finally {
+          DataBufferUtils.release(buffer);
+        }
+      })
+      .mapNotNull(Extraction::finish);
+  }
+
+  @Override
+  @Nullable
+  public BookMetadataResponse decode(DataBuffer buffer, ResolvableType targetType,
+                                     @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+    try {
+      Extraction extraction = newExtraction();
+      extraction.feed(buffer);
+      return extraction.finish();
+    }
+    finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  private Extraction newExtraction() {
+    try {
+      return new Extraction(jsonFactory.createNonBlockingByteBufferParser());
+    }
+    catch (IOException ex) {
+      throw new DecodingException("Could not create JSON parser", ex);
+    }
+  }
+
+  /**
+   * Parse state of a single response. Only tracks the nesting depth and the current property,
+   * the values of skipped properties are never read from the parser.
+   */
+  private static final class Extraction {
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+
+    private int depth;
+    private boolean started;
+    @Nullable
+    private String property;
+    @Nullable
+    private String nestedProperty;
+
+    @Nullable
+    private String key;
+    @Nullable
+    private String title;
+    @Nullable
+    private String description;
+    @Nullable
+    private Map<String, Integer> covers;
+
+    Extraction(JsonParser parser) {
+      this.parser = parser;
+      this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    void feed(DataBuffer buffer) {
+      try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+        while (iterator.hasNext()) {
+          ByteBuffer byteBuffer = iterator.next();
+          if (byteBuffer.hasRemaining()) {
+            feeder.feedInput(byteBuffer);
+            // The parser keeps a reference to the buffer, so it must be drained before the next one
+            drain();
+          }
+        }
+      }
+      catch (IOException ex) {
+        closeQuietly();
+        throw new DecodingException("Invalid OpenLibrary response: " + ex.getMessage(), ex);
+      }
+    }
+
+    @Nullable
+    BookMetadataResponse finish() {
+      try {
+        feeder.endOfInput();
+        drain();
+      }
+      catch (IOException ex) {
+        throw new DecodingException("Invalid OpenLibrary response: " + ex.getMessage(), ex);
+      }
+      finally {
+        closeQuietly();
+      }
+
+      if (!started) {
+        return null;
+      }
+      if (depth != 0) {
+        throw new DecodingException("Incomplete OpenLibrary response");
+      }
+      return new BookMetadataResponse(key, title, description, covers);
+    }
+
+    private void drain() throws IOException {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+        handle(token);
+      }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+      switch (token) {
+        case START_OBJECT, START_ARRAY -> {
+          if (!started && token == JsonToken.START_ARRAY) {
+            throw new DecodingException("Expected a JSON object from OpenLibrary");
+          }
+          started = true;
+          depth++;
+          if (depth == 2 && "cover".equals(property) && token == JsonToken.START_OBJECT) {
+            covers = new HashMap<>();
+          }
+        }
+        case END_OBJECT, END_ARRAY -> {
+          depth--;
+          if (depth == 1) {
+            nestedProperty = null;
+          }
+        }
+        case FIELD_NAME -> {
+          if (depth == 1) {
+            property = parser.currentName();
+          }
+          else if (depth == 2) {
+            nestedProperty = parser.currentName();
+          }
+        }
+        case VALUE_STRING -> {
+          if (depth == 1) {
+            readTopLevelString();
+          }
+          else if (depth == 2 && "description".equals(property) && "value".equals(nestedProperty)) {
+            description = parser.getText();
+          }
+        }
+        case VALUE_NUMBER_INT -> {
+          if (depth == 2 && covers != null && "cover".equals(property) && nestedProperty != null) {
+            covers.put(nestedProperty, parser.getIntValue());
+          }
+        }
+        default -> {
+          // Skipped without reading the value
+        }
+      }
+    }
+
+    private void readTopLevelString() throws IOException {
+      if (property == null) {
+        return;
+      }
+      switch (property) {
+        case "key" -> key = parser.getText();
+        case "title" -> title = parser.getText();
+        case "description" -> description = parser.getText();
+        default -> {
+          // Skipped without reading the value
+        }
+      }
+    }
+
+    private void closeQuietly() {
+      try {
+        parser.close();
+      }
+      catch (IOException ex) {
+        // Ignored, the parser holds no external resource
+      }
+    }
+  }
+}
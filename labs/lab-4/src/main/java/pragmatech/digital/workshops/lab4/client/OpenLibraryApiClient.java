@@ -1,26 +1,150 @@
 package pragmatech.digital.workshops.lab4.client;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
 
 /**
  * Client for interacting with the OpenLibrary API.
+ * <p>
+ * Every lookup passes the {@code openLibrary} circuit breaker and bulkhead, see
+ * {@link pragmatech.digital.workshops.lab4.config.OpenLibraryResilienceConfig}. With
+ * {@code book.metadata.api.hedging.enabled}, a second request is sent when the first one has not
+ * answered within the p95 latency of recent requests, and whichever answers first wins. A request
+ * that fails, e.g. on a reset connection or with a 5xx status, leaves the lookup to the other one.
+ * Hedging trades a few percent more requests for a shorter tail latency. Both requests of a lookup
+ * share a single bulkhead permit.
  */
 @Component
 public class OpenLibraryApiClient {
 
+  private static final double HEDGING_PERCENTILE = 0.95;
+
   private final WebClient webClient;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final boolean hedgingEnabled;
+  private final Duration hedgingMinDelay;
+  private final Timer latency;
+  private final Counter hedgedRequests;
 
-  public OpenLibraryApiClient(WebClient openLibraryWebClient) {
+  public OpenLibraryApiClient(
+    WebClient openLibraryWebClient,
+    CircuitBreaker openLibraryCircuitBreaker,
+    Bulkhead openLibraryBulkhead,
+    MeterRegistry meterRegistry,
+    @Value("${book.metadata.api.hedging.enabled:false}") boolean hedgingEnabled,
+    @Value("${book.metadata.api.hedging.min-delay:100ms}") Duration hedgingMinDelay) {
     this.webClient = openLibraryWebClient;
+    this.circuitBreaker = openLibraryCircuitBreaker;
+    this.bulkhead = openLibraryBulkhead;
+    this.hedgingEnabled = hedgingEnabled;
+    this.hedgingMinDelay = hedgingMinDelay;
+
+    this.latency = Timer.builder("book.metadata.api.requests")
+      .description("Latency of successful OpenLibrary requests")
+      .publishPercentiles(HEDGING_PERCENTILE)
+      .register(meterRegistry);
+    this.hedgedRequests = Counter.builder("book.metadata.api.hedged.requests")
+      .description("Additional requests sent because the first one was slower than the p95 latency")
+      .register(meterRegistry);
   }
 
   public BookMetadataResponse getBookByIsbn(String isbn) {
-    return webClient.get()
-      .uri("/isbn/{isbn}", isbn)
-      .retrieve()
-      .bodyToMono(BookMetadataResponse.class)
-      .block();
+    return fetchBookByIsbn(isbn).block();
+  }
+
+  /**
+   * Non-blocking variant of {@link #getBookByIsbn(String)}.
+   *
+   * @param isbn the ISBN to look up
+   * @return the metadata, or an error signal for non-2xx responses, an open circuit breaker or a
+   * full bulkhead
+   */
+  public Mono<BookMetadataResponse> fetchBookByIsbn(String isbn) {
+    Mono<BookMetadataResponse> request = hedgingEnabled ? hedged(isbn) : request(isbn);
+
+    return request
+      .transformDeferred(BulkheadOperator.of(bulkhead))
+      .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+  }
+
+  private Mono<BookMetadataResponse> hedged(String isbn) {
+    return Mono.defer(() -> {
+      Mono<Answer> hedge = Mono.delay(hedgingDelay())
+        .doOnNext(tick -> hedgedRequests.increment())
+        .then(answer(isbn));
+
+      // The first answer wins and the slower request is cancelled, failed requests don't count
+      return Mono.firstWithValue(answer(isbn), hedge)
+        .onErrorMap(NoSuchElementException.class, ex -> firstFailure(ex))
+        .flatMap(Answer::toMono);
+    });
+  }
+
+  private Mono<Answer> answer(String isbn) {
+    return request(isbn)
+      .map(metadata -> new Answer(metadata, null))
+      .defaultIfEmpty(new Answer(null, null))
+      // A client error such as 404 for an unknown ISBN is an answer, the other request would get the same
+      .onErrorResume(WebClientResponseException.class, ex -> ex.getStatusCode().is4xxClientError()
+        ? Mono.just(new Answer(null, ex))
+        : Mono.error(ex));
+  }
+
+  private static Throwable firstFailure(NoSuchElementException ex) {
+    // Both requests failed, report the error of the first one
+    List<Throwable> failures = Exceptions.unwrapMultiple(ex.getCause());
+    return failures.isEmpty() ? ex : failures.getFirst();
+  }
+
+  private Duration hedgingDelay() {
+    for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+      if (percentile.percentile() == HEDGING_PERCENTILE) {
+        long p95 = (long) percentile.value(TimeUnit.NANOSECONDS);
+        return p95 > hedgingMinDelay.toNanos() ? Duration.ofNanos(p95) : hedgingMinDelay;
+      }
+    }
+    return hedgingMinDelay;
+  }
+
+  private Mono<BookMetadataResponse> request(String isbn) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+
+      return webClient.get()
+        .uri("/isbn/{isbn}", isbn)
+        .retrieve()
+        .bodyToMono(BookMetadataResponse.class)
+        .doOnSuccess(metadata -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    });
+  }
+
+  /**
+   * Outcome of one request of a hedged lookup. Client errors are kept as outcome, so they win
+   * like a response instead of waiting for the other request.
+   */
+  private record Answer(BookMetadataResponse metadata, Throwable clientError) {
+
+    Mono<BookMetadataResponse> toMono() {
+      return clientError != null ? Mono.error(clientError) : Mono.justOrEmpty(metadata);
+    }
   }
 }
@@ -0,0 +1,105 @@
+package pragmatech.digital.workshops.lab4.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Logs a sample of the OpenLibrary requests with method, URI template, status, latency and
+ * response size as key-value pairs. Error responses and failed requests are always logged, except
+ * 404, which only means that OpenLibrary does not know the ISBN and is sampled like a success.
+ * <p>
+ * The filter runs on Netty event-loop threads, so it only creates the logging event there. The
+ * {@code logback-spring.xml} configuration hands these events to an {@code AsyncAppender} that
+ * drops them instead of blocking when its queue is full. Latency and size are taken once the
+ * response body has been read.
+ */
+public class OpenLibraryRequestLoggingFilter implements ExchangeFilterFunction {
+
+  private static final Logger logger = LoggerFactory.getLogger(OpenLibraryRequestLoggingFilter.class);
+
+  private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+  private final double sampleRate;
+
+  /**
+   * @param sampleRate share of successful requests to log, from {@code 0.0} to {@code 1.0}
+   */
+  public OpenLibraryRequestLoggingFilter(double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    if (!logger.isInfoEnabled()) {
+      return next.exchange(request);
+    }
+
+    return Mono.defer(() -> {
+      boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+      long start = System.nanoTime();
+
+      return next.exchange(request)
+        .map(response -> sampled || isUnexpected(response) ? measured(request, response, start) : response)
+        .doOnError(ex -> logger.atWarn()
+          .setMessage("OpenLibrary request failed")
+          .addKeyValue("method", request.method())
+          .addKeyValue("uri", uriTemplate(request))
+          .addKeyValue("duration_ms", elapsedMillis(start))
+          .addKeyValue("error", ex.getClass().getSimpleName())
+          .log());
+    });
+  }
+
+  private static ClientResponse measured(ClientRequest request, ClientResponse response, long start) {
+    AtomicLong bytes = new AtomicLong();
+    AtomicBoolean logged = new AtomicBoolean();
+    Runnable log = () -> {
+      // WebClient may subscribe to the body again to release it, e.g. after reading an error response
+      if (!logged.compareAndSet(false, true)) {
+        return;
+      }
+      LoggingEventBuilder event = isUnexpected(response) ? logger.atWarn() : logger.atInfo();
+      event.setMessage("OpenLibrary request")
+        .addKeyValue("method", request.method())
+        .addKeyValue("uri", uriTemplate(request))
+        .addKeyValue("status", response.statusCode().value())
+        .addKeyValue("duration_ms", elapsedMillis(start))
+        .addKeyValue("bytes", bytes.get())
+        .log();
+    };
+
+    // Logged before the body completes downstream, so the event is created before the caller continues
+    return response.mutate()
+      .body(body -> body
+        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+        .doOnTerminate(log)
+        .doOnCancel(log))
+      .build();
+  }
+
+  private static boolean isUnexpected(ClientResponse response) {
+    return response.statusCode().isError() && !response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND);
+  }
+
+  private static Object uriTemplate(ClientRequest request) {
+    // The template keeps the ISBN out of the log and groups requests by endpoint
+    return request.attribute(URI_TEMPLATE_ATTRIBUTE).orElseGet(() -> request.url().toString());
+  }
+
+  private static long elapsedMillis(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+}
@@ -1,17 +1,20 @@
 package pragmatech.digital.workshops.lab4.config;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Function;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,9 +26,35 @@ public class BlockBotRequestFilter extends OncePerRequestFilter {
 
   private static final Logger logger = LoggerFactory.getLogger(BlockBotRequestFilter.class);
 
-  private static final List<String> BLOCKED_USER_AGENT_KEYWORDS = Arrays.asList(
-    "openai", "claude", "anthropic", "gpt"
-  );
+  // Longer User-Agents are matched without caching, so clients cannot fill the cache with huge keys
+  private static final int MAX_CACHED_USER_AGENT_LENGTH = 512;
+
+  private final int verdictCacheSize;
+
+  // Matcher and cached verdicts are swapped together when the keywords change
+  private volatile Verdicts verdicts;
+
+  public BlockBotRequestFilter(
+    @Value("${book.bot-filter.blocked-keywords:openai,claude,anthropic,gpt}") List<String> blockedKeywords,
+    @Value("${book.bot-filter.verdict-cache-size:10000}") int verdictCacheSize) {
+    this.verdictCacheSize = verdictCacheSize;
+    this.verdicts = new Verdicts(UserAgentMatcher.compile(blockedKeywords), verdictCacheSize);
+  }
+
+  /**
+   * Replace the blocked User-Agent keywords at runtime. Requests that are already being
+   * filtered finish with the previous keywords.
+   *
+   * @param blockedKeywords the new keywords, case-insensitive
+   */
+  public void updateBlockedKeywords(List<String> blockedKeywords) {
+    this.verdicts = new Verdicts(UserAgentMatcher.compile(blockedKeywords), verdictCacheSize);
+    logger.info("Updated blocked User-Agent keywords to {}", blockedKeywords);
+  }
+
+  public List<String> getBlockedKeywords() {
+    return verdicts.matcher().getKeywords();
+  }
 
   @Override
   public void doFilterInternal(
@@ -33,14 +62,9 @@ public class BlockBotRequestFilter extends OncePerRequestFilter {
     HttpServletResponse response,
     FilterChain filterChain) throws ServletException, IOException {
 
-    String userAgent = Optional
-      .ofNullable(request.getHeader("User-Agent"))
-      .orElse("").toLowerCase();
-
-    boolean isLlmBot = BLOCKED_USER_AGENT_KEYWORDS.stream()
-      .anyMatch(userAgent::contains);
+    String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
 
-    if (isLlmBot) {
+    if (userAgent != null && verdicts.isBlocked(userAgent)) {
       logger.warn("Blocked request from LLM bot with User-Agent: {}", userAgent);
 
       response.setStatus(HttpStatus.I_AM_A_TEAPOT.value());
@@ -50,4 +74,29 @@ public class BlockBotRequestFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
-}
\ No newline at end of file
+
+  private static final class Verdicts {
+
+    private final UserAgentMatcher matcher;
+    private final Cache<String, Boolean> cache;
+    // Created once instead of a new method reference per lookup
+    private final Function<String, Boolean> matchFunction;
+
+    Verdicts(UserAgentMatcher matcher, int cacheSize) {
+      this.matcher = matcher;
+      this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+      this.matchFunction = matcher::matches;
+    }
+
+    UserAgentMatcher matcher() {
+      return matcher;
+    }
+
+    boolean isBlocked(String userAgent) {
+      if (userAgent.length() > MAX_CACHED_USER_AGENT_LENGTH) {
+        return matcher.matches(userAgent);
+      }
+      return cache.get(userAgent, matchFunction);
+    }
+  }
+}
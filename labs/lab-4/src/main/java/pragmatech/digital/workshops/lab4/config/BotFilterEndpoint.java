@@ -0,0 +1,35 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to inspect and hot-reload the User-Agent keywords blocked by the {@link BlockBotRequestFilter}.
+ * <p>
+ * {@code POST /actuator/botfilter} with {@code {"blockedKeywords": ["gpt", "crawler"]}} replaces the keywords.
+ */
+@Component
+@Endpoint(id = "botfilter")
+public class BotFilterEndpoint {
+
+  private final BlockBotRequestFilter blockBotRequestFilter;
+
+  public BotFilterEndpoint(BlockBotRequestFilter blockBotRequestFilter) {
+    this.blockBotRequestFilter = blockBotRequestFilter;
+  }
+
+  @ReadOperation
+  public List<String> blockedKeywords() {
+    return blockBotRequestFilter.getBlockedKeywords();
+  }
+
+  @WriteOperation
+  public List<String> updateBlockedKeywords(List<String> blockedKeywords) {
+    blockBotRequestFilter.updateBlockedKeywords(blockedKeywords);
+    return blockBotRequestFilter.getBlockedKeywords();
+  }
+}
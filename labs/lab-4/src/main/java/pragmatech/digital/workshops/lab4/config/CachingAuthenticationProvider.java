@@ -0,0 +1,112 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Remembers successful username/password authentications for a short time, so the expensive
+ * password hash (BCrypt) is only verified once per client and window instead of on every request.
+ * <p>
+ * Cache keys are an HMAC-SHA256 of the username and password with a random key generated on startup,
+ * so neither the passwords nor plain hashes of them are ever kept in memory. Failed attempts are
+ * not cached and always hit the delegate. Changes to a user (password, roles, locking) take effect
+ * once the cached entry expired.
+ * <p>
+ * Hit and miss counters are published as {@code cache.*} metrics with {@code cache=authentication}.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final AuthenticationProvider delegate;
+  private final SecretKeySpec secretKey;
+  private final Cache<String, VerifiedCredentials> cache;
+
+  public CachingAuthenticationProvider(AuthenticationProvider delegate, MeterRegistry meterRegistry,
+                                       Duration ttl, long maximumSize) {
+    this.delegate = delegate;
+
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    this.secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+    this.cache = Caffeine.newBuilder()
+      .expireAfterWrite(ttl)
+      .maximumSize(maximumSize)
+      .recordStats()
+      .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "authentication");
+  }
+
+  @Override
+  public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    if (!(authentication.getCredentials() instanceof String password)) {
+      return delegate.authenticate(authentication);
+    }
+
+    String cacheKey = cacheKey(authentication.getName(), password);
+    VerifiedCredentials verified = cache.getIfPresent(cacheKey);
+
+    if (verified == null) {
+      Authentication result = delegate.authenticate(authentication);
+
+      if (result == null || !result.isAuthenticated()) {
+        return result;
+      }
+
+      cache.put(cacheKey, new VerifiedCredentials(result.getPrincipal(), result.getAuthorities()));
+      return result;
+    }
+
+    // A fresh token per request, so details of one request never leak into another
+    UsernamePasswordAuthenticationToken result =
+      UsernamePasswordAuthenticationToken.authenticated(verified.principal(), null, verified.authorities());
+    result.setDetails(authentication.getDetails());
+    return result;
+  }
+
+  @Override
+  public boolean supports(Class<?> authentication) {
+    return delegate.supports(authentication);
+  }
+
+  private String cacheKey(String username, String password) {
+    byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+
+    try {
+      // Mac instances are not thread-safe, but cheap compared to the password hash they replace
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(secretKey);
+      // Length prefix keeps ("ab", "c") and ("a", "bc") apart
+      mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(usernameBytes.length).array());
+      mac.update(usernameBytes);
+      mac.update(password.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(mac.doFinal());
+    }
+    catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+    }
+  }
+
+  private record VerifiedCredentials(Object principal, Collection<? extends GrantedAuthority> authorities) {
+  }
+}
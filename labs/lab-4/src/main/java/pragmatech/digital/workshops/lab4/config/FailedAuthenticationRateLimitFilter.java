@@ -0,0 +1,78 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits failed authentication attempts per IP address, so credentials can't be guessed at the
+ * rate the password encoder allows.
+ * <p>
+ * Runs before Spring Security, as a request with bad credentials is answered there and never
+ * reaches the {@link RateLimitRequestFilter}. Only requests with credentials that end in 401 take
+ * a token. Once the bucket of an IP address is empty, its requests with credentials are refused
+ * before they are checked.
+ */
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@Component
+public class FailedAuthenticationRateLimitFilter extends OncePerRequestFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(FailedAuthenticationRateLimitFilter.class);
+
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final TokenBucketRateLimiter rateLimiter;
+
+  public FailedAuthenticationRateLimitFilter(
+    ObjectMapper objectMapper,
+    @Value("${book.rate-limit.enabled:true}") boolean enabled,
+    @Value("${book.rate-limit.failed-authentication.capacity:10}") long capacity,
+    @Value("${book.rate-limit.failed-authentication.refill-per-second:0.1}") double refillPerSecond,
+    @Value("${book.rate-limit.shards:16}") int shards,
+    @Value("${book.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.rateLimiter = new TokenBucketRateLimiter(capacity, refillPerSecond, shards, idleTimeout);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || request.getHeader(HttpHeaders.AUTHORIZATION) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+    HttpServletRequest request,
+    HttpServletResponse response,
+    FilterChain filterChain) throws ServletException, IOException {
+
+    String clientKey = "ip:" + request.getRemoteAddr();
+    long waitNanos = rateLimiter.waitNanos(clientKey);
+
+    if (waitNanos > 0) {
+      logger.debug("Too many failed authentications from {}", clientKey);
+      RateLimitRequestFilter.writeTooManyRequests(objectMapper, request, response, waitNanos);
+      return;
+    }
+
+    filterChain.doFilter(request, response);
+
+    if (response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+      rateLimiter.tryAcquire(clientKey);
+    }
+  }
+}
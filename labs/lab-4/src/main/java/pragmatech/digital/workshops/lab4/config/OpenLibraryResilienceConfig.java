@@ -0,0 +1,81 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.time.Duration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Circuit breaker and bulkhead guarding the calls to the OpenLibrary API.
+ * <p>
+ * The circuit breaker opens when too many of the recent calls failed or took longer than
+ * {@code book.metadata.api.circuit-breaker.slow-call-duration-threshold}. While it is open, calls
+ * fail right away instead of waiting for the timeout. The bulkhead caps the number of concurrent
+ * calls and rejects any beyond.
+ * <p>
+ * State and call counts are published as {@code resilience4j.circuitbreaker.*} and
+ * {@code resilience4j.bulkhead.*} metrics with {@code name=openLibrary}.
+ */
+@Configuration
+public class OpenLibraryResilienceConfig {
+
+  private static final String NAME = "openLibrary";
+
+  @Bean
+  public CircuitBreaker openLibraryCircuitBreaker(
+    MeterRegistry meterRegistry,
+    @Value("${book.metadata.api.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+    @Value("${book.metadata.api.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+    @Value("${book.metadata.api.circuit-breaker.slow-call-duration-threshold:2s}") Duration slowCallDurationThreshold,
+    @Value("${book.metadata.api.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+    @Value("${book.metadata.api.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+    @Value("${book.metadata.api.circuit-breaker.wait-duration-in-open-state:30s}") Duration waitDurationInOpenState,
+    @Value("${book.metadata.api.circuit-breaker.permitted-calls-in-half-open-state:3}") int permittedCallsInHalfOpenState) {
+
+    CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+      .failureRateThreshold(failureRateThreshold)
+      .slowCallRateThreshold(slowCallRateThreshold)
+      .slowCallDurationThreshold(slowCallDurationThreshold)
+      .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+      .slidingWindowSize(slidingWindowSize)
+      .minimumNumberOfCalls(minimumNumberOfCalls)
+      .waitDurationInOpenState(waitDurationInOpenState)
+      .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+      .automaticTransitionFromOpenToHalfOpenEnabled(true)
+      // An unknown ISBN is a valid answer, and a full bulkhead says nothing about OpenLibrary
+      .ignoreExceptions(WebClientResponseException.NotFound.class, BulkheadFullException.class)
+      .build();
+
+    CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    return registry.circuitBreaker(NAME);
+  }
+
+  @Bean
+  public Bulkhead openLibraryBulkhead(
+    MeterRegistry meterRegistry,
+    @Value("${book.metadata.api.bulkhead.max-concurrent-calls:32}") int maxConcurrentCalls) {
+
+    // The reactive operator never waits for a permit, calls beyond the limit fail right away
+    BulkheadConfig config = BulkheadConfig.custom()
+      .maxConcurrentCalls(maxConcurrentCalls)
+      .maxWaitDuration(Duration.ZERO)
+      .build();
+
+    BulkheadRegistry registry = BulkheadRegistry.of(config);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+    return registry.bulkhead(NAME);
+  }
+}
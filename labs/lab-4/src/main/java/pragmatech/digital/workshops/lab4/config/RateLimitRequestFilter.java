@@ -0,0 +1,115 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits the request rate per client, so a single noisy client can't starve the others.
+ * <p>
+ * Authenticated requests are limited per principal, anonymous ones per IP address. The filter
+ * runs after Spring Security, so the principal is already known. Requests failing authentication
+ * never get here, {@link FailedAuthenticationRateLimitFilter} limits those.
+ */
+@Order(2)
+@Component
+public class RateLimitRequestFilter extends OncePerRequestFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(RateLimitRequestFilter.class);
+
+  private static final URI PROBLEM_TYPE = URI.create("https://api.bookshelf.com/errors/too-many-requests");
+
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final TokenBucketRateLimiter rateLimiter;
+
+  public RateLimitRequestFilter(
+    ObjectMapper objectMapper,
+    @Value("${book.rate-limit.enabled:true}") boolean enabled,
+    @Value("${book.rate-limit.capacity:50}") long capacity,
+    @Value("${book.rate-limit.refill-per-second:10}") double refillPerSecond,
+    @Value("${book.rate-limit.shards:16}") int shards,
+    @Value("${book.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.rateLimiter = new TokenBucketRateLimiter(capacity, refillPerSecond, shards, idleTimeout);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled;
+  }
+
+  @Override
+  protected void doFilterInternal(
+    HttpServletRequest request,
+    HttpServletResponse response,
+    FilterChain filterChain) throws ServletException, IOException {
+
+    String clientKey = clientKey(request);
+    long waitNanos = rateLimiter.tryAcquire(clientKey);
+
+    if (waitNanos > 0) {
+      logger.debug("Rate limit exceeded for {}", clientKey);
+      writeTooManyRequests(objectMapper, request, response, waitNanos);
+      return;
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  /**
+   * Answer with 429 and a problem detail telling the client when to retry.
+   */
+  static void writeTooManyRequests(ObjectMapper objectMapper, HttpServletRequest request,
+                                   HttpServletResponse response, long waitNanos) throws IOException {
+    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+    // Filters run outside of Spring MVC, so the GlobalExceptionHandler can't write this response
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+      HttpStatus.TOO_MANY_REQUESTS,
+      "Rate limit exceeded, retry after " + retryAfterSeconds + " seconds"
+    );
+    problemDetail.setTitle("Too Many Requests");
+    problemDetail.setType(PROBLEM_TYPE);
+    problemDetail.setInstance(URI.create(request.getRequestURI()));
+    problemDetail.setProperty("timestamp", Instant.now());
+
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), problemDetail);
+  }
+
+  private static String clientKey(HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+    if (authentication != null && authentication.isAuthenticated()
+      && !(authentication instanceof AnonymousAuthenticationToken)) {
+      return "user:" + authentication.getName();
+    }
+
+    return "ip:" + request.getRemoteAddr();
+  }
+}
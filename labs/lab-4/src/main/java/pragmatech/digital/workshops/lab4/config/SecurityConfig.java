@@ -1,8 +1,15 @@
 package pragmatech.digital.workshops.lab4.config;
 
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -20,13 +27,17 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager)
+    throws Exception {
     http
+      .authenticationManager(authenticationManager)
       .csrf(AbstractHttpConfigurer::disable)
       .authorizeHttpRequests(auth -> auth
         .requestMatchers(HttpMethod.GET, "/api/books").permitAll()
+        .requestMatchers(HttpMethod.GET, "/api/books/search/**", "/api/books/suggest").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/books/{id}").hasRole("USER")
         .requestMatchers(HttpMethod.DELETE, "/api/books/{id}").hasRole("ADMIN")
+        .requestMatchers("/actuator/botfilter").hasRole("ADMIN")
         .anyRequest().authenticated()
       )
       .httpBasic(Customizer.withDefaults());
@@ -57,6 +68,24 @@ public class SecurityConfig {
     return new InMemoryUserDetailsManager(admin, librarian, user);
   }
 
+  /**
+   * Authenticates with the {@link CachingAuthenticationProvider}. It is handed to the filter chain
+   * instead of being exposed as a global {@code AuthenticationProvider} bean.
+   */
+  @Bean
+  public AuthenticationManager authenticationManager(
+    UserDetailsService userDetailsService,
+    PasswordEncoder passwordEncoder,
+    MeterRegistry meterRegistry,
+    @Value("${book.security.authentication-cache.ttl:5m}") Duration ttl,
+    @Value("${book.security.authentication-cache.maximum-size:10000}") long maximumSize) {
+    DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+    daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+
+    return new ProviderManager(
+      new CachingAuthenticationProvider(daoAuthenticationProvider, meterRegistry, ttl, maximumSize));
+  }
+
   @Bean
   public PasswordEncoder passwordEncoder() {
     return new BCryptPasswordEncoder();
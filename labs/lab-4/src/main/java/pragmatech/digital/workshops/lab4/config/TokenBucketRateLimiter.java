@@ -0,0 +1,132 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets, one per client key.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it is full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token moves that
+ * time forward by one refill interval with a CAS, which behaves exactly like a token bucket with
+ * the given capacity and refill rate without a lock or a background refill task.
+ * <p>
+ * Buckets are spread over independent shards to keep contention on the maps low. Each shard drops
+ * its idle buckets now and then, so clients that stopped sending requests don't pile up.
+ */
+public class TokenBucketRateLimiter {
+
+  private final long capacity;
+  private final long refillIntervalNanos;
+  private final long idleTimeoutNanos;
+  private final LongSupplier nanoClock;
+  private final Shard[] shards;
+
+  public TokenBucketRateLimiter(long capacity, double refillPerSecond, int shards, Duration idleTimeout) {
+    this(capacity, refillPerSecond, shards, idleTimeout, System::nanoTime);
+  }
+
+  public TokenBucketRateLimiter(long capacity, double refillPerSecond, int shards, Duration idleTimeout,
+                                LongSupplier nanoClock) {
+    if (capacity < 1 || refillPerSecond <= 0 || shards < 1) {
+      throw new IllegalArgumentException("Capacity, refill rate and shards must be positive");
+    }
+
+    this.capacity = capacity;
+    this.refillIntervalNanos = Math.max(1, (long) (Duration.ofSeconds(1).toNanos() / refillPerSecond));
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+    this.nanoClock = nanoClock;
+
+    long now = nanoClock.getAsLong();
+    this.shards = new Shard[shards];
+    for (int i = 0; i < shards; i++) {
+      this.shards[i] = new Shard(now + idleTimeoutNanos);
+    }
+  }
+
+  /**
+   * Take a token from the bucket of the given client.
+   *
+   * @param key identifies the client, e.g. the principal name or IP address
+   * @return zero if a token was taken, otherwise the nanoseconds until the next token is available
+   */
+  public long tryAcquire(String key) {
+    long now = nanoClock.getAsLong();
+    Shard shard = shards[Math.floorMod(spread(key.hashCode()), shards.length)];
+    shard.evictIdleBuckets(now);
+
+    AtomicLong bucket = shard.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    long burstNanos = capacity * refillIntervalNanos;
+
+    while (true) {
+      long fullAt = bucket.get();
+      long next = Math.max(fullAt - now, 0) + now + refillIntervalNanos;
+      long waitNanos = next - now - burstNanos;
+
+      if (waitNanos > 0) {
+        return waitNanos;
+      }
+
+      if (bucket.compareAndSet(fullAt, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Check the bucket of the given client without taking a token, e.g. to refuse a client that
+   * is only charged after its request, once the outcome is known.
+   *
+   * @param key identifies the client
+   * @return zero if a token is available, otherwise the nanoseconds until the next token is available
+   */
+  public long waitNanos(String key) {
+    long now = nanoClock.getAsLong();
+    AtomicLong bucket = shards[Math.floorMod(spread(key.hashCode()), shards.length)].buckets.get(key);
+
+    if (bucket == null) {
+      return 0;
+    }
+
+    return Math.max(Math.max(bucket.get() - now, 0) + refillIntervalNanos - capacity * refillIntervalNanos, 0);
+  }
+
+  /**
+   * @return the number of client buckets currently tracked
+   */
+  public int size() {
+    int size = 0;
+    for (Shard shard : shards) {
+      size += shard.buckets.size();
+    }
+    return size;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private final class Shard {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextEvictionAt;
+
+    private Shard(long firstEvictionAt) {
+      this.nextEvictionAt = new AtomicLong(firstEvictionAt);
+    }
+
+    private void evictIdleBuckets(long now) {
+      long evictionAt = nextEvictionAt.get();
+
+      // Only the thread winning the CAS sweeps, everyone else carries on
+      if (now - evictionAt < 0 || !nextEvictionAt.compareAndSet(evictionAt, now + idleTimeoutNanos)) {
+        return;
+      }
+
+      // A bucket that has been full for the idle timeout behaves exactly like a new one
+      buckets.values().removeIf(bucket -> now - bucket.get() > idleTimeoutNanos);
+    }
+  }
+}
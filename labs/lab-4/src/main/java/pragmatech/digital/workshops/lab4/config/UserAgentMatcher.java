@@ -0,0 +1,155 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Case-insensitive multi-keyword matcher based on the Aho-Corasick algorithm.
+ * <p>
+ * All keywords are compiled into a single deterministic automaton, so a User-Agent is scanned
+ * exactly once, regardless of the number of keywords, without creating a lowercased copy.
+ * Uppercase letters share the transitions of their lowercase counterparts.
+ * Keywords are limited to ASCII characters.
+ */
+public final class UserAgentMatcher {
+
+  private static final int ALPHABET_SIZE = 128;
+
+  // Marks a transition into a state that completes a keyword, the scan stops there
+  private static final int MATCH = -1;
+
+  private final List<String> keywords;
+
+  // transitions[state * ALPHABET_SIZE + c] is the next state, failure links are already resolved
+  private final int[] transitions;
+
+  private UserAgentMatcher(List<String> keywords, int[] transitions) {
+    this.keywords = keywords;
+    this.transitions = transitions;
+  }
+
+  /**
+   * Compile a matcher for the given keywords. Blank keywords are ignored.
+   *
+   * @param keywords the keywords to look for, case-insensitive
+   * @return the compiled matcher
+   * @throws IllegalArgumentException if a keyword contains non-ASCII characters
+   */
+  public static UserAgentMatcher compile(Collection<String> keywords) {
+    List<String> normalizedKeywords = new ArrayList<>();
+    List<int[]> goTo = new ArrayList<>();
+    List<Boolean> accepts = new ArrayList<>();
+
+    goTo.add(newState());
+    accepts.add(false);
+
+    for (String keyword : keywords) {
+      String normalized = keyword.strip().toLowerCase(Locale.ROOT);
+      if (normalized.isEmpty()) {
+        continue;
+      }
+
+      normalizedKeywords.add(normalized);
+
+      int state = 0;
+      for (int i = 0; i < normalized.length(); i++) {
+        char c = normalized.charAt(i);
+        if (c >= ALPHABET_SIZE) {
+          throw new IllegalArgumentException("Keyword must only contain ASCII characters: " + keyword);
+        }
+
+        if (goTo.get(state)[c] == -1) {
+          goTo.get(state)[c] = goTo.size();
+          goTo.add(newState());
+          accepts.add(false);
+        }
+        state = goTo.get(state)[c];
+      }
+      accepts.set(state, true);
+    }
+
+    // Breadth-first construction of the failure links, folded into the transition table
+    int[] failure = new int[goTo.size()];
+    Queue<Integer> queue = new ArrayDeque<>();
+
+    for (int c = 0; c < ALPHABET_SIZE; c++) {
+      int next = goTo.get(0)[c];
+      if (next == -1) {
+        goTo.get(0)[c] = 0;
+      }
+      else {
+        queue.add(next);
+      }
+    }
+
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      accepts.set(state, accepts.get(state) || accepts.get(failure[state]));
+
+      for (int c = 0; c < ALPHABET_SIZE; c++) {
+        int next = goTo.get(state)[c];
+        if (next == -1) {
+          goTo.get(state)[c] = goTo.get(failure[state])[c];
+        }
+        else {
+          failure[next] = goTo.get(failure[state])[c];
+          queue.add(next);
+        }
+      }
+    }
+
+    // Uppercase letters share the transitions of their lowercase counterparts, so no case folding is needed while scanning
+    int[] transitions = new int[goTo.size() * ALPHABET_SIZE];
+    for (int state = 0; state < goTo.size(); state++) {
+      for (int c = 0; c < ALPHABET_SIZE; c++) {
+        int next = goTo.get(state)[Character.toLowerCase(c)];
+        transitions[state * ALPHABET_SIZE + c] = accepts.get(next) ? MATCH : next;
+      }
+    }
+
+    return new UserAgentMatcher(List.copyOf(normalizedKeywords), transitions);
+  }
+
+  /**
+   * Check whether the text contains any of the keywords, ignoring case.
+   *
+   * @param text the text to scan
+   * @return true if at least one keyword occurs in the text
+   */
+  public boolean matches(String text) {
+    int[] transitions = this.transitions;
+    int state = 0;
+
+    for (int i = 0, length = text.length(); i < length; i++) {
+      char c = text.charAt(i);
+
+      if (c >= ALPHABET_SIZE) {
+        // No keyword contains non-ASCII characters
+        state = 0;
+        continue;
+      }
+
+      state = transitions[state * ALPHABET_SIZE + c];
+      if (state == MATCH) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  public List<String> getKeywords() {
+    return keywords;
+  }
+
+  private static int[] newState() {
+    int[] state = new int[ALPHABET_SIZE];
+    Arrays.fill(state, -1);
+    return state;
+  }
+}
@@ -0,0 +1,28 @@
+package pragmatech.digital.workshops.lab4.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import pragmatech.digital.workshops.lab4.dto.MetadataWarmUpProgress;
+import pragmatech.digital.workshops.lab4.service.BookMetadataWarmUp;
+
+/**
+ * Actuator endpoint reporting the progress of the {@link BookMetadataWarmUp}.
+ * <p>
+ * {@code GET /actuator/warmup} returns the status and the number of cached, unknown and failed ISBNs.
+ */
+@Component
+@Endpoint(id = "warmup")
+public class WarmUpEndpoint {
+
+  private final BookMetadataWarmUp bookMetadataWarmUp;
+
+  public WarmUpEndpoint(BookMetadataWarmUp bookMetadataWarmUp) {
+    this.bookMetadataWarmUp = bookMetadataWarmUp;
+  }
+
+  @ReadOperation
+  public MetadataWarmUpProgress progress() {
+    return bookMetadataWarmUp.getProgress();
+  }
+}
@@ -12,41 +12,75 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import pragmatech.digital.workshops.lab4.client.BookMetadataDecoder;
+import pragmatech.digital.workshops.lab4.client.OpenLibraryRequestLoggingFilter;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
 
+  /**
+   * Connection pool for the OpenLibrary API. Idle and long-lived connections are closed before
+   * OpenLibrary or a proxy drops them, which would fail the next request on that connection.
+   * <p>
+   * Pool usage is published as {@code reactor.netty.connection.provider.*} metrics with
+   * {@code name=openLibrary}, e.g. {@code pending.connections} shows requests waiting for a connection.
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider openLibraryConnectionProvider(
+    @Value("${book.metadata.api.pool.max-connections:50}") int maxConnections,
+    @Value("${book.metadata.api.pool.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+    @Value("${book.metadata.api.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+    @Value("${book.metadata.api.pool.max-idle-time:20s}") Duration maxIdleTime,
+    @Value("${book.metadata.api.pool.max-life-time:5m}") Duration maxLifeTime) {
+
+    return ConnectionProvider.builder("openLibrary")
+      .maxConnections(maxConnections)
+      .pendingAcquireMaxCount(pendingAcquireMaxCount)
+      .pendingAcquireTimeout(pendingAcquireTimeout)
+      .maxIdleTime(maxIdleTime)
+      .maxLifeTime(maxLifeTime)
+      .evictInBackground(maxIdleTime)
+      .metrics(true)
+      .build();
+  }
+
   @Bean
   public WebClient openLibraryWebClient(
+    ConnectionProvider openLibraryConnectionProvider,
     @Value("${book.metadata.api.url:https://openlibrary.org}") String baseUrl,
-    @Value("${book.metadata.api.timeout:5}") int timeoutSeconds) {
+    @Value("${book.metadata.api.timeout:5}") int timeoutSeconds,
+    @Value("${book.metadata.api.http2:false}") boolean http2,
+    @Value("${book.metadata.api.logging.sample-rate:0.1}") double loggingSampleRate) {
 
-    HttpClient httpClient = HttpClient.create()
+    HttpClient httpClient = HttpClient.create(openLibraryConnectionProvider)
       .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
       .responseTimeout(Duration.ofSeconds(timeoutSeconds))
+      // Sends Accept-Encoding: gzip and decompresses the responses
+      .compress(true)
       .doOnConnected(conn ->
         conn.addHandlerLast(new ReadTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS))
           .addHandlerLast(new WriteTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS)));
 
+    if (http2) {
+      // Negotiated with ALPN over TLS, falling back to HTTP/1.1 for servers without HTTP/2
+      httpClient = baseUrl.startsWith("https")
+        ? httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+        : httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+
     return WebClient.builder()
       .baseUrl(baseUrl)
       .clientConnector(new ReactorClientHttpConnector(httpClient))
       .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-      .filter(logRequest())
+      .filter(new OpenLibraryRequestLoggingFilter(loggingSampleRate))
+      // Streams responses into BookMetadataResponse instead of buffering them for the ObjectMapper
       .codecs(configurer -> configurer
-        .defaultCodecs()
-        .maxInMemorySize(16 * 1024 * 1024)) // 16MB buffer for larger responses
+        .customCodecs()
+        .register(new BookMetadataDecoder()))
       .build();
   }
-
-  private ExchangeFilterFunction logRequest() {
-    return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-      System.out.println("Request: " + clientRequest.method() + " " + clientRequest.url());
-      return Mono.just(clientRequest);
-    });
-  }
 }
@@ -1,8 +1,29 @@
 package pragmatech.digital.workshops.lab4.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,36 +31,139 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.dto.BookImportResult;
+import pragmatech.digital.workshops.lab4.dto.BookPage;
+import pragmatech.digital.workshops.lab4.dto.BookSearchPage;
 import pragmatech.digital.workshops.lab4.dto.BookUpdateRequest;
+import pragmatech.digital.workshops.lab4.dto.DiscountedBook;
+import pragmatech.digital.workshops.lab4.dto.DiscountedBookPage;
 import pragmatech.digital.workshops.lab4.entity.Book;
 import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
 import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import pragmatech.digital.workshops.lab4.service.DiscountService;
+import pragmatech.digital.workshops.lab4.service.DiscountService.DiscountTiers;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
   private final BookService bookService;
+  private final BookImportService bookImportService;
   private final BookRepository bookRepository;
+  private final DiscountService discountService;
+  private final BookSuggestionIndex bookSuggestionIndex;
+  private final ObjectMapper objectMapper;
 
-  public BookController(BookService bookService, BookRepository bookRepository) {
+  public BookController(BookService bookService, BookImportService bookImportService, BookRepository bookRepository,
+                        DiscountService discountService, BookSuggestionIndex bookSuggestionIndex,
+                        ObjectMapper objectMapper) {
     this.bookService = bookService;
+    this.bookImportService = bookImportService;
     this.bookRepository = bookRepository;
+    this.discountService = discountService;
+    this.bookSuggestionIndex = bookSuggestionIndex;
+    this.objectMapper = objectMapper;
   }
 
   @GetMapping
-  public List<Book> getAllBooks() {
-    return bookService.getAllBooks();
+  public DiscountedBookPage getBooks(
+    @RequestParam(required = false) String cursor,
+    @RequestParam(defaultValue = "50") int size) {
+    BookPage page = bookService.getBooks(cursor, size);
+    return new DiscountedBookPage(discountService.applyDiscounts(page.books()), page.nextCursor());
   }
 
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+    ObjectWriter bookWriter = objectMapper.writerFor(DiscountedBook.class)
+      .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    StreamingResponseBody body = outputStream -> {
+      // Tiers are fixed for the whole response, so a stream crossing midnight prices consistently
+      DiscountTiers discountTiers = discountService.currentTiers();
+
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+        // Every book, including the last one, ends with a newline instead of the default space between books
+        generator.setRootValueSeparator(null);
+
+        bookService.streamAllBooks(book -> {
+          try {
+            bookWriter.writeValue(generator, new DiscountedBook(book, discountTiers.discountFor(book)));
+            generator.writeRaw('\n');
+          }
+          catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      }
+    };
+
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_NDJSON)
+      .body(body);
+  }
+
+  /**
+   * Full text search over title, author and description, ordered by relevance.
+   */
+  @GetMapping("/search")
+  public BookSearchPage searchBooks(
+    @RequestParam @NotBlank String q,
+    @RequestParam(defaultValue = "0") @PositiveOrZero int page,
+    @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+    Page<Book> result = bookService.searchBooks(q, page, size);
+
+    return new BookSearchPage(
+      discountService.applyDiscounts(result.getContent()),
+      result.getNumber(),
+      result.getSize(),
+      result.getTotalElements());
+  }
+
+  /**
+   * Typo-tolerant title search, returning at most {@code limit} books with the most similar titles.
+   * Thresholds below 0.1 are rejected, as nearly every title would match and defeat the index.
+   */
+  @GetMapping("/search/fuzzy")
+  public List<DiscountedBook> searchBooksByTitleFuzzy(
+    @RequestParam @NotBlank String title,
+    @RequestParam(defaultValue = "0.3") @DecimalMin("0.1") @DecimalMax("1.0") double threshold,
+    @RequestParam(defaultValue = "10") int limit) {
+    return discountService.applyDiscounts(bookService.findBooksByTitleFuzzy(title, threshold, limit));
+  }
+
+  /**
+   * Type-ahead suggestions of titles and authors with a word starting with {@code q},
+   * served from memory.
+   */
+  @GetMapping("/suggest")
+  public List<String> suggest(
+    @RequestParam @NotBlank String q,
+    @RequestParam(defaultValue = "10") int limit) {
+    return bookSuggestionIndex.suggest(q, Math.clamp(limit, 1, 20));
+  }
+
+  /**
+   * Return a book with its version as strong ETag. Spring answers a matching {@code If-None-Match}
+   * with 304 Not Modified before the book is serialized.
+   */
   @GetMapping("/{id}")
   public ResponseEntity<Book> getBookById(@PathVariable Long id) {
     return bookService.getBookById(id)
-      .map(ResponseEntity::ok)
+      .map(book -> ResponseEntity.ok()
+        .eTag(eTagOf(book))
+        // Clients may keep the book but must revalidate it, which costs a 304 at most
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .body(book))
       .orElse(ResponseEntity.notFound().build());
   }
 
@@ -54,19 +178,72 @@ public class BookController {
       .build();
   }
 
+  /**
+   * Import many books at once. Each request is validated individually, so the response
+   * reports the outcome per book instead of rejecting the whole import.
+   */
+  @PostMapping("/bulk")
+  public List<BookImportResult> importBooks(
+    @RequestBody @NotEmpty @Size(max = 10_000) List<BookCreationRequest> requests) {
+    return bookImportService.importBooks(requests);
+  }
+
+  /**
+   * Update a book. With {@code If-Match}, the update only happens if the book is still at one of
+   * the given versions, otherwise the response is 412 Precondition Failed.
+   * <p>
+   * The background enrichment changes the book too. An ETag read while the enrichment status was
+   * {@code PENDING} no longer matches once the enrichment finished, so clients read the book again.
+   */
   @PutMapping("/{id}")
   public ResponseEntity<Book> updateBook(
     @PathVariable Long id,
+    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
     @Valid @RequestBody BookUpdateRequest request) {
-    return bookService.updateBook(id, request)
-      .map(ResponseEntity::ok)
+    return bookService.updateBook(id, request, expectedVersions(ifMatch))
+      .map(book -> ResponseEntity.ok().eTag(eTagOf(book)).body(book))
       .orElse(ResponseEntity.notFound().build());
   }
 
+  /**
+   * Delete a book. With {@code If-Match}, the book is only deleted if it is still at one of
+   * the given versions, otherwise the response is 412 Precondition Failed.
+   */
   @DeleteMapping("/{id}")
-  public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-    return bookService.deleteBook(id)
+  public ResponseEntity<Void> deleteBook(
+    @PathVariable Long id,
+    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return bookService.deleteBook(id, expectedVersions(ifMatch))
       ? ResponseEntity.noContent().build()
       : ResponseEntity.notFound().build();
   }
+
+  private static String eTagOf(Book book) {
+    return ETag.quoteETagIfNecessary(String.valueOf(book.getVersion()));
+  }
+
+  private static Set<Long> expectedVersions(String ifMatch) {
+    if (ifMatch == null) {
+      return null;
+    }
+
+    Set<Long> versions = new HashSet<>();
+    for (ETag eTag : ETag.parse(ifMatch)) {
+      if (eTag.isWildcard()) {
+        return null;
+      }
+
+      // If-Match uses the strong comparison, so weak and foreign ETags never match
+      if (!eTag.weak() && eTag.tag().chars().allMatch(Character::isDigit)) {
+        try {
+          versions.add(Long.parseLong(eTag.tag()));
+        }
+        catch (NumberFormatException ex) {
+          // Too large to be a version of ours, so it can never match
+        }
+      }
+    }
+
+    return versions;
+  }
 }
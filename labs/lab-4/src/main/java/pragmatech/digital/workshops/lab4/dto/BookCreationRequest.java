@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 /**
  * DTO for book creation requests using Java Record
@@ -16,9 +17,11 @@ public record BookCreationRequest(
   String isbn,
 
   @NotBlank(message = "Title is required")
+  @Size(max = 255, message = "Title must be at most 255 characters")
   String title,
 
   @NotBlank(message = "Author is required")
+  @Size(max = 255, message = "Author must be at most 255 characters")
   String author,
 
   @NotNull(message = "Published date is required")
@@ -0,0 +1,32 @@
+package pragmatech.digital.workshops.lab4.dto;
+
+/**
+ * Outcome of importing a single {@link BookCreationRequest} as part of a bulk import.
+ * The {@code index} refers to the position of the request in the submitted list.
+ */
+public record BookImportResult(
+  int index,
+  String isbn,
+  Status status,
+  Long id,
+  String message
+) {
+
+  public enum Status {
+    CREATED,   // Book has been saved
+    DUPLICATE, // ISBN already exists or appears more than once in the request
+    INVALID    // Request failed validation
+  }
+
+  public static BookImportResult created(int index, String isbn, Long id) {
+    return new BookImportResult(index, isbn, Status.CREATED, id, null);
+  }
+
+  public static BookImportResult duplicate(int index, String isbn, String message) {
+    return new BookImportResult(index, isbn, Status.DUPLICATE, null, message);
+  }
+
+  public static BookImportResult invalid(int index, String isbn, String message) {
+    return new BookImportResult(index, isbn, Status.INVALID, null, message);
+  }
+}
@@ -0,0 +1,13 @@
+package pragmatech.digital.workshops.lab4.dto;
+
+import java.util.List;
+
+/**
+ * A single page of full text search results, ordered by relevance.
+ */
+public record BookSearchPage(
+  List<DiscountedBook> books,
+  int page,
+  int size,
+  long totalElements
+) { }
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Size;
 import pragmatech.digital.workshops.lab4.entity.BookStatus;
 
 /**
@@ -12,9 +13,11 @@ import pragmatech.digital.workshops.lab4.entity.BookStatus;
  */
 public record BookUpdateRequest(
   @NotBlank(message = "Title is required")
+  @Size(max = 255, message = "Title must be at most 255 characters")
   String title,
 
   @NotBlank(message = "Author is required")
+  @Size(max = 255, message = "Author must be at most 255 characters")
   String author,
 
   @NotNull(message = "Published date is required")
@@ -0,0 +1,13 @@
+package pragmatech.digital.workshops.lab4.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import pragmatech.digital.workshops.lab4.entity.Book;
+
+/**
+ * A book together with its current discount. Serialized as the book's fields plus
+ * {@code discountPercentage}.
+ */
+public record DiscountedBook(
+  @JsonUnwrapped Book book,
+  int discountPercentage
+) { }
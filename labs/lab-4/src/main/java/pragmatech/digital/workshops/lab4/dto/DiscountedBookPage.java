@@ -0,0 +1,11 @@
+package pragmatech.digital.workshops.lab4.dto;
+
+import java.util.List;
+
+/**
+ * A {@link BookPage} with the current discount of every book.
+ */
+public record DiscountedBookPage(
+  List<DiscountedBook> books,
+  String nextCursor
+) { }
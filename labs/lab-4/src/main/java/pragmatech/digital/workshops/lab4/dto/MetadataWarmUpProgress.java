@@ -0,0 +1,26 @@
+package pragmatech.digital.workshops.lab4.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Progress of the metadata cache warm-up, as reported by {@code /actuator/warmup}.
+ * {@code duration} is the time spent so far while running, and the total time once completed.
+ */
+public record MetadataWarmUpProgress(
+  Status status,
+  int total,
+  int cached,
+  int notFound,
+  int failed,
+  Instant startedAt,
+  Duration duration
+) {
+
+  public enum Status {
+    DISABLED,  // book.metadata.warm-up.enabled is false
+    PENDING,   // Waiting for the application to accept traffic
+    RUNNING,   // Fetching metadata
+    COMPLETED  // Every ISBN has been fetched or has failed
+  }
+}
@@ -2,6 +2,7 @@ package pragmatech.digital.workshops.lab4.entity;
 
 import java.time.LocalDate;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -9,19 +10,38 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Entity representing a book in the library system.
+ * <p>
+ * Books are kept in the second-level cache, by id and by ISBN. Writes through Hibernate keep
+ * the cache up to date, writes bypassing Hibernate must evict the book.
+ * Updates only set the changed columns and check the version, so a background enrichment and
+ * a concurrent edit of the title don't overwrite each other.
  */
 @Entity
 @Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@NaturalIdCache(region = "book-isbns")
+@DynamicUpdate
 public class Book {
 
+  // A pooled sequence instead of IDENTITY allows Hibernate to batch inserts
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+  @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
   private Long id;
 
+  @NaturalId
   @Column(nullable = false, unique = true)
   private String isbn;
 
@@ -44,6 +64,16 @@ public class Book {
   @Column(nullable = false)
   private BookStatus status = BookStatus.AVAILABLE;
 
+  @Enumerated(EnumType.STRING)
+  @Column(name = "enrichment_status", nullable = false)
+  private EnrichmentStatus enrichmentStatus = EnrichmentStatus.PENDING;
+
+  // Incremented on every update, also used as the ETag of the book. The background enrichment is
+  // an update as well, so the ETag changes once the enrichment status leaves PENDING
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   // Default constructor for JPA
   public Book() {
   }
@@ -108,6 +138,14 @@ public class Book {
     return status == BookStatus.AVAILABLE;
   }
 
+  public EnrichmentStatus getEnrichmentStatus() {
+    return enrichmentStatus;
+  }
+
+  public void setEnrichmentStatus(EnrichmentStatus enrichmentStatus) {
+    this.enrichmentStatus = enrichmentStatus;
+  }
+
   public String getDescription() {
     return description;
   }
@@ -124,6 +162,14 @@ public class Book {
     this.thumbnailUrl = thumbnailUrl;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -154,6 +200,7 @@ public class Book {
       ", author='" + author + '\'' +
       ", publishedDate=" + publishedDate +
       ", status=" + status +
+      ", enrichmentStatus=" + enrichmentStatus +
       '}';
   }
 }
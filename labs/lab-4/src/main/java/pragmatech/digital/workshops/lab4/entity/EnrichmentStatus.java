@@ -0,0 +1,10 @@
+package pragmatech.digital.workshops.lab4.entity;
+
+/**
+ * Enum representing the progress of the background metadata enrichment of a book.
+ */
+public enum EnrichmentStatus {
+  PENDING,   // Book is saved, metadata has not been fetched yet
+  COMPLETED, // Thumbnail and description have been filled in
+  FAILED     // Metadata could not be fetched, the book is kept without it
+}
@@ -0,0 +1,12 @@
+package pragmatech.digital.workshops.lab4.exception;
+
+/**
+ * Exception thrown when a conditional update or delete expects a version of a book that is
+ * no longer current.
+ */
+public class BookVersionMismatchException extends RuntimeException {
+
+  public BookVersionMismatchException(Long id, Long currentVersion) {
+    super("Book with id " + id + " has been modified, the current version is " + currentVersion);
+  }
+}
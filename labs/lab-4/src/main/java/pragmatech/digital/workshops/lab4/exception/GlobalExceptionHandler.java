@@ -3,6 +3,7 @@ package pragmatech.digital.workshops.lab4.exception;
 import java.net.URI;
 import java.time.Instant;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -34,4 +35,65 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     return problemDetail;
   }
+
+  /**
+   * Handle InvalidCursorException by returning HTTP 400 Bad Request with RFC 7807 Problem Details.
+   *
+   * @param ex the exception
+   * @return a ProblemDetail with status 400 and error information
+   */
+  @ExceptionHandler(InvalidCursorException.class)
+  public ProblemDetail handleInvalidCursorException(InvalidCursorException ex) {
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+      HttpStatus.BAD_REQUEST,
+      ex.getMessage()
+    );
+
+    problemDetail.setTitle("Invalid Cursor");
+    problemDetail.setType(URI.create("https://api.bookshelf.com/errors/invalid-cursor"));
+    problemDetail.setProperty("timestamp", Instant.now());
+
+    return problemDetail;
+  }
+
+  /**
+   * Handle BookVersionMismatchException by returning HTTP 412 Precondition Failed with RFC 7807 Problem Details.
+   *
+   * @param ex the exception
+   * @return a ProblemDetail with status 412 and error information
+   */
+  @ExceptionHandler(BookVersionMismatchException.class)
+  public ProblemDetail handleBookVersionMismatchException(BookVersionMismatchException ex) {
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+      HttpStatus.PRECONDITION_FAILED,
+      ex.getMessage()
+    );
+
+    problemDetail.setTitle("Precondition Failed");
+    problemDetail.setType(URI.create("https://api.bookshelf.com/errors/precondition-failed"));
+    problemDetail.setProperty("timestamp", Instant.now());
+
+    return problemDetail;
+  }
+
+  /**
+   * Handle OptimisticLockingFailureException, raised when a book was modified between loading and
+   * writing it, by returning HTTP 409 Conflict with RFC 7807 Problem Details.
+   *
+   * @param ex the exception
+   * @return a ProblemDetail with status 409 and error information
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ProblemDetail handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+      HttpStatus.CONFLICT,
+      "The book has been modified concurrently, please retry"
+    );
+
+    problemDetail.setTitle("Concurrent Modification");
+    problemDetail.setType(URI.create("https://api.bookshelf.com/errors/concurrent-modification"));
+    problemDetail.setProperty("timestamp", Instant.now());
+
+    return problemDetail;
+  }
 }
@@ -0,0 +1,22 @@
+package pragmatech.digital.workshops.lab4.repository;
+
+import java.util.Optional;
+
+import pragmatech.digital.workshops.lab4.entity.Book;
+
+/**
+ * Lookups by the natural id of a book, its ISBN.
+ */
+public interface BookNaturalIdRepository {
+
+  /**
+   * Find a book by its ISBN.
+   * <p>
+   * Resolved through the natural-id cache, so repeated lookups of the same ISBN don't hit the
+   * database.
+   *
+   * @param isbn the ISBN to search for
+   * @return the book with the given ISBN, if found
+   */
+  Optional<Book> findByIsbn(String isbn);
+}
@@ -0,0 +1,26 @@
+package pragmatech.digital.workshops.lab4.repository;
+
+import java.util.Optional;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import pragmatech.digital.workshops.lab4.entity.Book;
+
+class BookNaturalIdRepositoryImpl implements BookNaturalIdRepository {
+
+  private final EntityManager entityManager;
+
+  BookNaturalIdRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Book> findByIsbn(String isbn) {
+    // A derived query would bypass the second-level cache, a natural-id load goes through it
+    return entityManager.unwrap(Session.class)
+      .bySimpleNaturalId(Book.class)
+      .loadOptional(isbn);
+  }
+}
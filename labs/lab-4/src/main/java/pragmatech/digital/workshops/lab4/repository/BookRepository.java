@@ -1,20 +1,73 @@
 package pragmatech.digital.workshops.lab4.repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import pragmatech.digital.workshops.lab4.entity.Book;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookNaturalIdRepository {
+
+  /**
+   * Keyset pagination: seek past the last seen id instead of using an offset,
+   * so every page is an index range scan on the primary key.
+   * <p>
+   * The ids of a page are kept in the query cache, which is invalidated by any write to the
+   * books table, the books themselves come from the second-level cache.
+   *
+   * @param id    the id of the last book of the previous page (0 for the first page)
+   * @param limit the maximum number of books to return
+   * @return the books with an id greater than the given one, ordered by id
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+  /**
+   * Stream all books ordered by id. The fetch size makes the PostgreSQL driver use a
+   * server-side cursor, so only one batch of rows is held in memory at a time.
+   * Must be consumed within a transaction and closed afterward.
+   * <p>
+   * Bypasses the second-level cache, so a full export doesn't evict the frequently read books.
+   *
+   * @return a stream over all books
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+  })
+  @Query("SELECT b FROM Book b ORDER BY b.id")
+  Stream<Book> streamAllOrderedById();
+
+  /**
+   * Stream the title and author of all books, without loading the entities.
+   * Must be consumed within a transaction and closed afterward.
+   *
+   * @return a stream over the titles and authors of all books
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT b.title AS title, b.author AS author FROM Book b")
+  Stream<TitleAndAuthor> streamTitlesAndAuthors();
 
   /**
    * PostgreSQL-specific: Full text search on book titles with ranking.
    * Uses PostgreSQL's to_tsvector and to_tsquery for sophisticated text searching
    * with ranking based on relevance.
    *
+   * <p>
+   * The title vector is computed twice per row at query time and can't use an index,
+   * prefer {@link #searchBooks(String, Pageable)}.
+   *
    * @param searchTerms the search terms (e.g. "adventure dragons fantasy")
    * @return list of books matching the search terms, ordered by relevance
    */
@@ -26,30 +79,86 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     nativeQuery = true)
   List<Book> searchBooksByTitleWithRanking(@Param("searchTerms") String searchTerms);
 
+  /**
+   * PostgreSQL-specific: Full text search over title, author and description.
+   * Uses the precomputed, GIN-indexed {@code search_vector} column, so neither the WHERE clause
+   * nor the ranking has to parse the text of a row at query time. Title matches rank highest,
+   * followed by author and description matches.
+   *
+   * @param query    the search query in web search syntax (e.g. {@code "spring boot" -kotlin})
+   * @param pageable the page to return, must not be sorted as results are ordered by relevance
+   * @return the page of matching books, ordered by relevance
+   */
+  @Query(value = """
+    SELECT b.* FROM books b, websearch_to_tsquery('english', :query) q
+    WHERE b.search_vector @@ q
+    ORDER BY ts_rank(b.search_vector, q) DESC, b.id
+    """,
+    countQuery = """
+      SELECT count(*) FROM books
+      WHERE search_vector @@ websearch_to_tsquery('english', :query)
+      """,
+    nativeQuery = true)
+  Page<Book> searchBooks(@Param("query") String query, Pageable pageable);
+
   /**
    * PostgreSQL-specific: Fuzzy string matching using trigram similarity.
    * Finds books with similar titles even with typos or slight variations.
    * Requires the pg_trgm extension.
+   * <p>
+   * The {@code %} operator uses the trigram index on the title and compares against the
+   * {@code pg_trgm.similarity_threshold} of the current session, see
+   * {@link #setSimilarityThreshold(String)}. The distance operator {@code <->} lets the GiST index
+   * return the nearest titles first, so only {@code limit} matches are read instead of sorting all.
    *
-   * @param title               the approximate title to search for
-   * @param similarityThreshold the minimum similarity threshold (0.0-1.0)
-   * @return list of books with similar titles, ordered by similarity
+   * @param title the approximate title to search for
+   * @param limit the maximum number of books to return
+   * @return the most similar books, ordered by similarity
    */
   @Query(value = """
     SELECT * FROM books
-    WHERE similarity(title, :title) > :similarityThreshold
-    ORDER BY similarity(title, :title) DESC
+    WHERE title % :title
+    ORDER BY title <-> :title
+    LIMIT :limit
     """,
     nativeQuery = true)
-  List<Book> findBooksByTitleFuzzy(
-    @Param("title") String title,
-    @Param("similarityThreshold") double similarityThreshold);
+  List<Book> findBooksByTitleFuzzy(@Param("title") String title, @Param("limit") int limit);
+
+  /**
+   * PostgreSQL-specific: Set the minimum similarity for the {@code %} operator until the
+   * end of the current transaction.
+   *
+   * @param threshold the minimum similarity (0.0-1.0)
+   * @return the new threshold
+   */
+  @Query(value = "SELECT set_config('pg_trgm.similarity_threshold', :threshold, true)", nativeQuery = true)
+  String setSimilarityThreshold(@Param("threshold") String threshold);
+
+  /**
+   * Find which of the given ISBNs are already taken, using a single {@code IN} query.
+   *
+   * @param isbns the ISBNs to check
+   * @return the subset of ISBNs that already exist
+   */
+  @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+  Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
 
   /**
-   * Find a book by its ISBN.
+   * Find the ISBNs of the most recently added books, newest first.
    *
-   * @param isbn the ISBN to search for
-   * @return the book with the given ISBN, if found
+   * @param limit the maximum number of ISBNs to return
+   * @return the ISBNs ordered by descending id
+   */
+  @Query("SELECT b.isbn FROM Book b ORDER BY b.id DESC")
+  List<String> findRecentIsbns(Limit limit);
+
+  /**
+   * Projection of the fields used for suggestions.
    */
-  Optional<Book> findByIsbn(String isbn);
+  interface TitleAndAuthor {
+
+    String getTitle();
+
+    String getAuthor();
+  }
 }
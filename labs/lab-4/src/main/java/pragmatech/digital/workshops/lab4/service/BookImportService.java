@@ -0,0 +1,187 @@
+package pragmatech.digital.workshops.lab4.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.dto.BookImportResult;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.entity.EnrichmentStatus;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Imports many books at once.
+ * <p>
+ * Duplicates are detected with a single {@code IN} query, metadata is fetched concurrently
+ * through the non-blocking {@link BookMetadataCache} and books are saved in batches, one
+ * transaction per batch.
+ */
+@Service
+public class BookImportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+  private final BookRepository bookRepository;
+  private final BookMetadataCache bookMetadataCache;
+  private final BookSuggestionIndex bookSuggestionIndex;
+  private final Validator validator;
+  private final TransactionTemplate transactionTemplate;
+  private final int metadataConcurrency;
+  private final int batchSize;
+
+  public BookImportService(
+    BookRepository bookRepository,
+    BookMetadataCache bookMetadataCache,
+    BookSuggestionIndex bookSuggestionIndex,
+    Validator validator,
+    TransactionTemplate transactionTemplate,
+    @Value("${book.bulk-import.metadata-concurrency:16}") int metadataConcurrency,
+    @Value("${book.bulk-import.batch-size:50}") int batchSize) {
+    this.bookRepository = bookRepository;
+    this.bookMetadataCache = bookMetadataCache;
+    this.bookSuggestionIndex = bookSuggestionIndex;
+    this.validator = validator;
+    this.transactionTemplate = transactionTemplate;
+    this.metadataConcurrency = metadataConcurrency;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Import the given books and report the outcome for each of them.
+   *
+   * @param requests the books to import
+   * @return one result per request, in the order of the requests
+   */
+  public List<BookImportResult> importBooks(List<BookCreationRequest> requests) {
+    BookImportResult[] results = new BookImportResult[requests.size()];
+
+    // ISBN -> index of the first valid request using it
+    Map<String, Integer> candidates = new LinkedHashMap<>();
+
+    for (int i = 0; i < requests.size(); i++) {
+      BookCreationRequest request = requests.get(i);
+      if (request == null) {
+        results[i] = BookImportResult.invalid(i, null, "must not be null");
+        continue;
+      }
+
+      Set<ConstraintViolation<BookCreationRequest>> violations = validator.validate(request);
+
+      if (!violations.isEmpty()) {
+        results[i] = BookImportResult.invalid(i, request.isbn(), violations.stream()
+          .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+          .sorted()
+          .collect(Collectors.joining(", ")));
+      }
+      else if (candidates.putIfAbsent(request.isbn(), i) != null) {
+        results[i] = BookImportResult.duplicate(i, request.isbn(), "ISBN appears more than once in the request");
+      }
+    }
+
+    if (!candidates.isEmpty()) {
+      for (String isbn : bookRepository.findExistingIsbns(candidates.keySet())) {
+        int index = candidates.remove(isbn);
+        results[index] = BookImportResult.duplicate(index, isbn, "Book with ISBN " + isbn + " already exists");
+      }
+    }
+
+    Map<String, BookMetadataResponse> metadata = fetchMetadata(candidates.keySet());
+
+    List<Integer> pending = new ArrayList<>(candidates.values());
+    for (int from = 0; from < pending.size(); from += batchSize) {
+      List<Integer> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+      saveBatch(batch, requests, metadata, results);
+    }
+
+    return Arrays.asList(results);
+  }
+
+  private Map<String, BookMetadataResponse> fetchMetadata(Set<String> isbns) {
+    if (isbns.isEmpty()) {
+      return Map.of();
+    }
+
+    return Flux.fromIterable(isbns)
+      .flatMap(isbn -> bookMetadataCache.fetchBookByIsbn(isbn)
+          .map(metadata -> Map.entry(isbn, metadata))
+          .onErrorResume(ex -> {
+            logger.debug("Failed to fetch metadata for ISBN {}: {}", isbn, ex.getMessage());
+            return Mono.empty();
+          }),
+        metadataConcurrency)
+      .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+      .block();
+  }
+
+  private void saveBatch(List<Integer> batch, List<BookCreationRequest> requests,
+                         Map<String, BookMetadataResponse> metadata, BookImportResult[] results) {
+    try {
+      List<Book> saved = transactionTemplate.execute(status -> bookRepository.saveAll(batch.stream()
+        .map(index -> toBook(requests.get(index), metadata))
+        .toList()));
+
+      for (int i = 0; i < batch.size(); i++) {
+        int index = batch.get(i);
+        results[index] = BookImportResult.created(index, requests.get(index).isbn(), saved.get(i).getId());
+        bookSuggestionIndex.add(saved.get(i).getTitle(), saved.get(i).getAuthor());
+      }
+    }
+    catch (DataIntegrityViolationException ex) {
+      // Another request inserted one of the ISBNs in the meantime or a row violates another
+      // constraint, fall back to saving one by one to find the affected requests
+      for (int index : batch) {
+        BookCreationRequest request = requests.get(index);
+        try {
+          Book saved = transactionTemplate.execute(status -> bookRepository.save(toBook(request, metadata)));
+          results[index] = BookImportResult.created(index, request.isbn(), saved.getId());
+          bookSuggestionIndex.add(saved.getTitle(), saved.getAuthor());
+        }
+        catch (DataIntegrityViolationException violation) {
+          if (BookService.isIsbnConflict(violation)) {
+            results[index] = BookImportResult.duplicate(index, request.isbn(),
+              "Book with ISBN " + request.isbn() + " already exists");
+          }
+          else {
+            // The database message contains the whole statement, so it is only logged
+            logger.debug("Failed to import book with ISBN {}: {}", request.isbn(),
+              violation.getMostSpecificCause().getMessage());
+            results[index] = BookImportResult.invalid(index, request.isbn(), "Rejected by the database");
+          }
+        }
+      }
+    }
+  }
+
+  private static Book toBook(BookCreationRequest request, Map<String, BookMetadataResponse> metadata) {
+    Book book = new Book(request.isbn(), request.title(), request.author(), request.publishedDate());
+
+    BookMetadataResponse bookMetadata = metadata.get(request.isbn());
+    if (bookMetadata != null) {
+      book.setThumbnailUrl(bookMetadata.getCoverUrl());
+      book.setDescription(bookMetadata.description());
+      book.setEnrichmentStatus(EnrichmentStatus.COMPLETED);
+    }
+    else {
+      book.setEnrichmentStatus(EnrichmentStatus.FAILED);
+    }
+
+    return book;
+  }
+}
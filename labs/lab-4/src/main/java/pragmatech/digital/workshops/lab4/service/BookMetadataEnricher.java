@@ -0,0 +1,129 @@
+package pragmatech.digital.workshops.lab4.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.entity.EnrichmentStatus;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+
+/**
+ * Fills in the thumbnail and description of already saved books in the background.
+ * <p>
+ * Work is queued on a bounded executor, so a slow OpenLibrary API never holds up the
+ * request thread. When the queue is full, the book is marked as {@link EnrichmentStatus#FAILED}.
+ * With {@code spring.threads.virtual.enabled} the workers are virtual threads, the pool size still
+ * bounds the number of concurrent OpenLibrary requests.
+ * <p>
+ * Results are written through the loaded entity rather than a bulk update, as Hibernate clears
+ * the whole second-level cache region of {@code Book} on every bulk update. If the book is edited
+ * concurrently, the write is retried once and otherwise given up, leaving the book
+ * {@link EnrichmentStatus#PENDING}.
+ */
+@Service
+public class BookMetadataEnricher implements DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookMetadataEnricher.class);
+
+  private static final int MAX_UPDATE_ATTEMPTS = 2;
+
+  private final BookMetadataCache bookMetadataCache;
+  private final BookRepository bookRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ThreadPoolTaskExecutor executor;
+
+  public BookMetadataEnricher(
+    BookMetadataCache bookMetadataCache,
+    BookRepository bookRepository,
+    TransactionTemplate transactionTemplate,
+    @Value("${book.metadata.enrichment.concurrency:4}") int concurrency,
+    @Value("${book.metadata.enrichment.queue-capacity:1000}") int queueCapacity,
+    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.bookMetadataCache = bookMetadataCache;
+    this.bookRepository = bookRepository;
+    this.transactionTemplate = transactionTemplate;
+
+    this.executor = new ThreadPoolTaskExecutor();
+    this.executor.setCorePoolSize(concurrency);
+    this.executor.setMaxPoolSize(concurrency);
+    this.executor.setQueueCapacity(queueCapacity);
+    this.executor.setThreadNamePrefix("book-enrichment-");
+    this.executor.setVirtualThreads(virtualThreads);
+    this.executor.setWaitForTasksToCompleteOnShutdown(true);
+    this.executor.setAwaitTerminationSeconds(10);
+    this.executor.initialize();
+  }
+
+  /**
+   * Queue the metadata enrichment of a saved book.
+   *
+   * @param bookId the id of the saved book
+   * @param isbn   the ISBN to fetch the metadata for
+   */
+  public void enrichAsync(Long bookId, String isbn) {
+    try {
+      executor.execute(() -> enrich(bookId, isbn));
+    }
+    catch (TaskRejectedException ex) {
+      logger.warn("Enrichment queue is full, skipping metadata for book {} (ISBN {})", bookId, isbn);
+      updateEnrichment(bookId, null, null, EnrichmentStatus.FAILED);
+    }
+  }
+
+  private void enrich(Long bookId, String isbn) {
+    BookMetadataResponse metadata;
+    try {
+      metadata = bookMetadataCache.getBookByIsbn(isbn);
+    }
+    catch (RuntimeException ex) {
+      logger.warn("Failed to enrich book {} (ISBN {}): {}", bookId, isbn, ex.getMessage());
+      metadata = null;
+    }
+
+    if (metadata == null) {
+      updateEnrichment(bookId, null, null, EnrichmentStatus.FAILED);
+      return;
+    }
+
+    updateEnrichment(bookId, metadata.getCoverUrl(), metadata.description(), EnrichmentStatus.COMPLETED);
+  }
+
+  private void updateEnrichment(Long bookId, String thumbnailUrl, String description, EnrichmentStatus status) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        applyEnrichment(bookId, thumbnailUrl, description, status);
+        return;
+      }
+      catch (OptimisticLockingFailureException ex) {
+        // The book was edited in the meantime, the enrichment fields are still ours to set
+        if (attempt == MAX_UPDATE_ATTEMPTS) {
+          logger.warn("Book {} kept changing, giving up setting its enrichment status to {}", bookId, status);
+          return;
+        }
+      }
+    }
+  }
+
+  private void applyEnrichment(Long bookId, String thumbnailUrl, String description, EnrichmentStatus status) {
+    transactionTemplate.executeWithoutResult(transaction ->
+      bookRepository.findById(bookId).ifPresent(book -> {
+        if (status == EnrichmentStatus.COMPLETED) {
+          book.setThumbnailUrl(thumbnailUrl);
+          book.setDescription(description);
+        }
+        book.setEnrichmentStatus(status);
+      }));
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,146 @@
+package pragmatech.digital.workshops.lab4.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.dto.MetadataWarmUpProgress;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fills the {@link BookMetadataCache} once the application accepts traffic, so startup and
+ * readiness never wait for OpenLibrary.
+ * <p>
+ * The ISBNs are taken from {@code book.metadata.warm-up.isbns} and, with
+ * {@code book.metadata.warm-up.recent-books}, from the most recently added books. Up to
+ * {@code book.metadata.warm-up.concurrency} requests run at the same time. Failed lookups are
+ * counted and skipped, the first request for such an ISBN fetches it again.
+ */
+@Service
+public class BookMetadataWarmUp implements DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookMetadataWarmUp.class);
+
+  private final BookMetadataCache bookMetadataCache;
+  private final BookRepository bookRepository;
+  private final boolean enabled;
+  private final List<String> isbns;
+  private final int recentBooks;
+  private final int concurrency;
+
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final AtomicInteger cached = new AtomicInteger();
+  private final AtomicInteger notFound = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private volatile int total;
+  private volatile Instant startedAt;
+  private volatile Instant completedAt;
+  private volatile Disposable subscription;
+
+  public BookMetadataWarmUp(
+    BookMetadataCache bookMetadataCache,
+    BookRepository bookRepository,
+    @Value("${book.metadata.warm-up.enabled:true}") boolean enabled,
+    @Value("${book.metadata.warm-up.isbns:9780132350884,9780201633610,9780134757599}") List<String> isbns,
+    @Value("${book.metadata.warm-up.recent-books:0}") int recentBooks,
+    @Value("${book.metadata.warm-up.concurrency:4}") int concurrency) {
+    this.bookMetadataCache = bookMetadataCache;
+    this.bookRepository = bookRepository;
+    this.enabled = enabled;
+    this.isbns = isbns;
+    this.recentBooks = recentBooks;
+    this.concurrency = concurrency;
+  }
+
+  @EventListener
+  public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+    if (enabled && event.getState() == ReadinessState.ACCEPTING_TRAFFIC && started.compareAndSet(false, true)) {
+      start();
+    }
+  }
+
+  private void start() {
+    startedAt = Instant.now();
+
+    // Loading the recent ISBNs queries the database, so the event thread only subscribes
+    subscription = Mono.fromCallable(this::isbnsToWarmUp)
+      .subscribeOn(Schedulers.boundedElastic())
+      .doOnNext(warmUpIsbns -> {
+        total = warmUpIsbns.size();
+        logger.info("Warming up the metadata cache for {} ISBNs", total);
+      })
+      .flatMapMany(Flux::fromIterable)
+      .flatMap(isbn -> bookMetadataCache.fetchBookByIsbn(isbn)
+          .doOnNext(metadata -> cached.incrementAndGet())
+          .switchIfEmpty(Mono.fromRunnable(notFound::incrementAndGet))
+          .onErrorResume(ex -> {
+            failed.incrementAndGet();
+            logger.warn("Failed to warm up metadata for ISBN {}: {}", isbn, ex.getMessage());
+            return Mono.empty();
+          }),
+        concurrency)
+      .doFinally(signal -> {
+        completedAt = Instant.now();
+        logger.info("Metadata cache warm-up completed in {} ms: {} cached, {} not found, {} failed",
+          Duration.between(startedAt, completedAt).toMillis(), cached.get(), notFound.get(), failed.get());
+      })
+      .subscribe(metadata -> { }, ex -> logger.warn("Metadata cache warm-up failed: {}", ex.getMessage()));
+  }
+
+  private Set<String> isbnsToWarmUp() {
+    Set<String> warmUpIsbns = new LinkedHashSet<>(isbns);
+    if (recentBooks > 0) {
+      warmUpIsbns.addAll(bookRepository.findRecentIsbns(Limit.of(recentBooks)));
+    }
+    warmUpIsbns.removeIf(String::isBlank);
+    return warmUpIsbns;
+  }
+
+  public MetadataWarmUpProgress getProgress() {
+    Instant start = startedAt;
+    Instant end = completedAt;
+
+    MetadataWarmUpProgress.Status status;
+    if (!enabled) {
+      status = MetadataWarmUpProgress.Status.DISABLED;
+    }
+    else if (start == null) {
+      status = MetadataWarmUpProgress.Status.PENDING;
+    }
+    else if (end == null) {
+      status = MetadataWarmUpProgress.Status.RUNNING;
+    }
+    else {
+      status = MetadataWarmUpProgress.Status.COMPLETED;
+    }
+
+    Duration duration = start == null ? null : Duration.between(start, end == null ? Instant.now() : end);
+    return new MetadataWarmUpProgress(status, total, cached.get(), notFound.get(), failed.get(), start, duration);
+  }
+
+  @Override
+  public void destroy() {
+    Disposable current = subscription;
+    if (current != null) {
+      current.dispose();
+    }
+  }
+}
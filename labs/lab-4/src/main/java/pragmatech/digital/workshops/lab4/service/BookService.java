@@ -1,33 +1,63 @@
 package pragmatech.digital.workshops.lab4.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import pragmatech.digital.workshops.lab4.client.OpenLibraryApiClient;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
-import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.dto.BookPage;
 import pragmatech.digital.workshops.lab4.dto.BookUpdateRequest;
 import pragmatech.digital.workshops.lab4.entity.Book;
 import pragmatech.digital.workshops.lab4.exception.BookAlreadyExistsException;
+import pragmatech.digital.workshops.lab4.exception.BookVersionMismatchException;
+import pragmatech.digital.workshops.lab4.exception.InvalidCursorException;
 import pragmatech.digital.workshops.lab4.repository.BookRepository;
 
 @Service
 public class BookService {
 
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int MAX_SEARCH_PAGE_SIZE = 100;
+  private static final int MAX_FUZZY_RESULTS = 50;
+  private static final String ISBN_CONSTRAINT = "books_isbn_key";
+
   private final BookRepository bookRepository;
-  private final OpenLibraryApiClient openLibraryApiClient;
+  private final BookMetadataEnricher bookMetadataEnricher;
+  private final BookSuggestionIndex bookSuggestionIndex;
+  private final EntityManager entityManager;
 
-  public BookService(BookRepository bookRepository, OpenLibraryApiClient openLibraryApiClient) {
+  public BookService(BookRepository bookRepository, BookMetadataEnricher bookMetadataEnricher,
+                     BookSuggestionIndex bookSuggestionIndex, EntityManager entityManager) {
     this.bookRepository = bookRepository;
-    this.openLibraryApiClient = openLibraryApiClient;
+    this.bookMetadataEnricher = bookMetadataEnricher;
+    this.bookSuggestionIndex = bookSuggestionIndex;
+    this.entityManager = entityManager;
   }
 
+  /**
+   * Create a book and queue the enrichment of its metadata.
+   * <p>
+   * The unique constraint on the ISBN detects duplicates, so a create is a single insert and of two
+   * concurrent requests for the same ISBN only one succeeds.
+   *
+   * @return the id of the new book
+   * @throws BookAlreadyExistsException if there already is a book with the given ISBN
+   */
   public Long createBook(BookCreationRequest request) {
-    if (bookRepository.findByIsbn(request.isbn()).isPresent()) {
-      throw new BookAlreadyExistsException(request.isbn());
-    }
-
     Book book = new Book(
       request.isbn(),
       request.title(),
@@ -35,39 +65,192 @@ public class BookService {
       request.publishedDate()
     );
 
-    BookMetadataResponse metadata = openLibraryApiClient.getBookByIsbn(request.isbn());
+    Book savedBook;
+    try {
+      // Flush right away so the constraint violation is raised here and not on commit
+      savedBook = bookRepository.saveAndFlush(book);
+    }
+    catch (DataIntegrityViolationException ex) {
+      if (isIsbnConflict(ex)) {
+        throw new BookAlreadyExistsException(request.isbn());
+      }
+      throw ex;
+    }
+
+    bookSuggestionIndex.add(request.title(), request.author());
 
-    book.setThumbnailUrl(metadata.getCoverUrl());
+    // Thumbnail and description are filled in the background, see Book#getEnrichmentStatus()
+    bookMetadataEnricher.enrichAsync(savedBook.getId(), request.isbn());
 
-    Book savedBook = bookRepository.save(book);
     return savedBook.getId();
   }
 
-  public List<Book> getAllBooks() {
-    return bookRepository.findAll();
+  public BookPage getBooks(String cursor, int size) {
+    int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+    // Fetch one extra row to find out whether there is a next page
+    List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(decodeCursor(cursor), Limit.of(pageSize + 1));
+
+    if (books.size() <= pageSize) {
+      return new BookPage(books, null);
+    }
+
+    List<Book> page = books.subList(0, pageSize);
+    return new BookPage(page, encodeCursor(page.get(pageSize - 1).getId()));
+  }
+
+  /**
+   * Pass every book to the given consumer, one at a time. Each book is detached after
+   * it has been consumed so the persistence context does not grow with the table.
+   *
+   * @param consumer the consumer receiving the books ordered by id
+   */
+  @Transactional(readOnly = true)
+  public void streamAllBooks(Consumer<Book> consumer) {
+    try (Stream<Book> books = bookRepository.streamAllOrderedById()) {
+      books.forEach(book -> {
+        consumer.accept(book);
+        entityManager.detach(book);
+      });
+    }
+  }
+
+  /**
+   * Full text search over title, author and description, ordered by relevance.
+   *
+   * @param query the search query in web search syntax
+   * @param page  the zero-based page index
+   * @param size  the page size, clamped to 1..100
+   * @return the requested page of matching books
+   */
+  public Page<Book> searchBooks(String query, int page, int size) {
+    return bookRepository.searchBooks(query, PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_SEARCH_PAGE_SIZE)));
+  }
+
+  /**
+   * Typo-tolerant title search, returning the most similar titles first.
+   *
+   * @param title     the approximate title
+   * @param threshold the minimum trigram similarity (0.0-1.0)
+   * @param limit     the maximum number of books, clamped to 1..50
+   * @return the most similar books, ordered by similarity
+   */
+  @Transactional(readOnly = true)
+  public List<Book> findBooksByTitleFuzzy(String title, double threshold, int limit) {
+    // Scoped to this transaction, so pooled connections keep the default threshold
+    bookRepository.setSimilarityThreshold(String.valueOf(threshold));
+    return bookRepository.findBooksByTitleFuzzy(title, Math.clamp(limit, 1, MAX_FUZZY_RESULTS));
   }
 
   public Optional<Book> getBookById(Long id) {
     return bookRepository.findById(id);
   }
 
-  public Optional<Book> updateBook(Long id, BookUpdateRequest request) {
+  /**
+   * Update the mutable fields of a book.
+   * <p>
+   * Runs in one transaction, so the book is loaded once, usually from the second-level cache,
+   * and only the changed columns are written.
+   *
+   * @param expectedVersions the versions the client accepts, e.g. from {@code If-Match}, or null to
+   *                         update any version
+   * @return the updated book, empty if there is no book with the given id
+   * @throws BookVersionMismatchException if the current version is not one of the expected ones
+   */
+  @Transactional
+  public Optional<Book> updateBook(Long id, BookUpdateRequest request, Set<Long> expectedVersions) {
     return bookRepository.findById(id)
       .map(book -> {
+        checkVersion(book, expectedVersions);
+
+        String previousTitle = book.getTitle();
+        String previousAuthor = book.getAuthor();
+
         book.setTitle(request.title());
         book.setAuthor(request.author());
         book.setPublishedDate(request.publishedDate());
         book.setStatus(request.status());
-        return bookRepository.save(book);
+
+        afterCommit(() -> {
+          bookSuggestionIndex.remove(previousTitle, previousAuthor);
+          bookSuggestionIndex.add(request.title(), request.author());
+        });
+        return book;
       });
   }
 
-  public boolean deleteBook(Long id) {
+  /**
+   * Delete a book.
+   * <p>
+   * Runs in one transaction, so the book is loaded once, usually from the second-level cache,
+   * and removed with a single statement.
+   *
+   * @param expectedVersions the versions the client accepts, e.g. from {@code If-Match}, or null to
+   *                         delete any version
+   * @return whether a book with the given id existed
+   * @throws BookVersionMismatchException if the current version is not one of the expected ones
+   */
+  @Transactional
+  public boolean deleteBook(Long id, Set<Long> expectedVersions) {
     return bookRepository.findById(id)
       .map(book -> {
+        checkVersion(book, expectedVersions);
         bookRepository.delete(book);
+
+        String title = book.getTitle();
+        String author = book.getAuthor();
+        afterCommit(() -> bookSuggestionIndex.remove(title, author));
         return true;
       })
       .orElse(false);
   }
+
+  static boolean isIsbnConflict(DataIntegrityViolationException ex) {
+    return ex.getCause() instanceof ConstraintViolationException violation
+      && ISBN_CONSTRAINT.equals(violation.getConstraintName());
+  }
+
+  /**
+   * Run the given action once the current transaction has committed, so a rolled back write,
+   * e.g. after a concurrent modification, never reaches in-memory state like the suggestion index.
+   */
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private static void checkVersion(Book book, Set<Long> expectedVersions) {
+    // A concurrent update after this check still fails, as the UPDATE or DELETE checks the version
+    if (expectedVersions != null && !expectedVersions.contains(book.getVersion())) {
+      throw new BookVersionMismatchException(book.getId(), book.getVersion());
+    }
+  }
+
+  private static String encodeCursor(Long lastId) {
+    return Base64.getUrlEncoder()
+      .withoutPadding()
+      .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static long decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0L;
+    }
+
+    try {
+      return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+    }
+    catch (IllegalArgumentException ex) {
+      throw new InvalidCursorException(cursor);
+    }
+  }
 }
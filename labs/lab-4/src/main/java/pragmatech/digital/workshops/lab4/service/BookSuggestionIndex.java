@@ -0,0 +1,430 @@
+package pragmatech.digital.workshops.lab4.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.repository.BookRepository.TitleAndAuthor;
+
+/**
+ * In-memory type-ahead index over book titles and authors.
+ * <p>
+ * Every word of a title or author starts a key, so {@code "jav"} suggests both "Java Concurrency
+ * in Practice" and "Effective Java". Keys are lowercased and stripped of accents, and live in a
+ * radix tree whose nodes share common prefixes. A lookup walks the prefix once and collects the
+ * first suggestions in alphabetical order of their keys.
+ * <p>
+ * Memory is bounded by {@code book.suggest.max-entries} and {@code book.suggest.max-key-length}.
+ * Once full, new entries are skipped until books are removed.
+ * <p>
+ * The index is built before the web server starts, so books created by requests are never
+ * counted twice by the initial build and {@link #add(String, String)}.
+ */
+@Component
+public class BookSuggestionIndex implements SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookSuggestionIndex.class);
+
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final BookRepository bookRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int maxEntries;
+  private final int maxKeyLength;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Node root = new Node("");
+  private int entries;
+  private boolean full;
+
+  public BookSuggestionIndex(
+    BookRepository bookRepository,
+    PlatformTransactionManager transactionManager,
+    @Value("${book.suggest.max-entries:1000000}") int maxEntries,
+    @Value("${book.suggest.max-key-length:50}") int maxKeyLength) {
+    this.bookRepository = bookRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.maxEntries = maxEntries;
+    this.maxKeyLength = maxKeyLength;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    build();
+  }
+
+  /**
+   * Index all existing books.
+   */
+  private void build() {
+    long start = System.nanoTime();
+
+    transactionTemplate.executeWithoutResult(status -> {
+      try (Stream<TitleAndAuthor> books = bookRepository.streamTitlesAndAuthors()) {
+        books.forEach(book -> add(book.getTitle(), book.getAuthor()));
+      }
+    });
+
+    logger.info("Built suggestion index with {} entries in {} ms", size(),
+      (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Add the title and author of a book.
+   */
+  public void add(String title, String author) {
+    update(title, author, +1);
+  }
+
+  /**
+   * Remove the title and author of a book, e.g. after it was deleted or renamed.
+   */
+  public void remove(String title, String author) {
+    update(title, author, -1);
+  }
+
+  /**
+   * Suggest titles and authors containing a word that starts with the given prefix.
+   *
+   * @param prefix the text typed so far
+   * @param limit  the maximum number of suggestions
+   * @return distinct titles and authors, at most {@code limit}
+   */
+  public List<String> suggest(String prefix, int limit) {
+    String key = normalize(prefix);
+    if (key.isEmpty() || limit < 1) {
+      return List.of();
+    }
+
+    Set<String> suggestions = new LinkedHashSet<>();
+
+    lock.readLock().lock();
+    try {
+      Node node = find(key.length() > maxKeyLength ? key.substring(0, maxKeyLength) : key);
+      if (node != null) {
+        collect(node, suggestions, limit);
+      }
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+
+    return List.copyOf(suggestions);
+  }
+
+  /**
+   * @return the number of indexed (key, suggestion) pairs
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return entries;
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void update(String title, String author, int delta) {
+    lock.writeLock().lock();
+    try {
+      for (String text : new String[]{title, author}) {
+        if (text == null || text.isBlank()) {
+          continue;
+        }
+
+        String display = WHITESPACE.matcher(text.strip()).replaceAll(" ");
+        for (String key : keys(display)) {
+          if (delta > 0) {
+            insert(key, display);
+          }
+          else {
+            delete(key, display);
+          }
+        }
+      }
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private List<String> keys(String display) {
+    String normalized = normalize(display);
+    List<String> keys = new ArrayList<>();
+
+    for (int i = 0; i < normalized.length(); i++) {
+      if (i == 0 || normalized.charAt(i - 1) == ' ') {
+        keys.add(normalized.substring(i, Math.min(normalized.length(), i + maxKeyLength)));
+      }
+    }
+
+    return keys;
+  }
+
+  private static String normalize(String text) {
+    String decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+    String withoutDiacritics = DIACRITICS.matcher(decomposed).replaceAll("");
+    return WHITESPACE.matcher(withoutDiacritics).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+
+  private void insert(String key, String display) {
+    if (entries >= maxEntries && !contains(key, display)) {
+      warnFull();
+      return;
+    }
+
+    Node node = root;
+    int i = 0;
+
+    while (i < key.length()) {
+      int index = node.indexOf(key.charAt(i));
+
+      if (index < 0) {
+        Node leaf = new Node(key.substring(i));
+        node.insertChild(-index - 1, leaf);
+        node = leaf;
+        break;
+      }
+
+      Node child = node.children[index];
+      int common = commonPrefixLength(child.label, key, i);
+
+      if (common < child.label.length()) {
+        // Split the edge, the new inner node keeps the shared part of the label
+        Node inner = new Node(child.label.substring(0, common));
+        child.label = child.label.substring(common);
+        inner.children = new Node[]{child};
+        node.children[index] = inner;
+        child = inner;
+      }
+
+      node = child;
+      i += common;
+    }
+
+    if (node.suggestions == null) {
+      node.suggestions = new TreeMap<>();
+    }
+
+    if (node.suggestions.merge(display, 1, Integer::sum) == 1) {
+      entries++;
+    }
+  }
+
+  private void delete(String key, String display) {
+    List<Node> path = new ArrayList<>();
+    Node node = root;
+    int i = 0;
+
+    while (i < key.length()) {
+      path.add(node);
+      int index = node.indexOf(key.charAt(i));
+      if (index < 0) {
+        return;
+      }
+
+      Node child = node.children[index];
+      if (!key.startsWith(child.label, i)) {
+        return;
+      }
+
+      node = child;
+      i += child.label.length();
+    }
+
+    Integer count = node.suggestions == null ? null : node.suggestions.get(display);
+    if (count == null) {
+      return;
+    }
+
+    if (count > 1) {
+      node.suggestions.put(display, count - 1);
+      return;
+    }
+
+    node.suggestions.remove(display);
+    if (node.suggestions.isEmpty()) {
+      node.suggestions = null;
+    }
+
+    entries--;
+    full = false;
+    prune(path, node);
+  }
+
+  private void prune(List<Node> path, Node node) {
+    // Drop empty leaves and merge inner nodes left with a single child, bottom up
+    for (int level = path.size() - 1; level >= 0 && node != root; level--) {
+      Node parent = path.get(level);
+
+      if (node.suggestions == null && node.children.length == 0) {
+        parent.removeChild(node);
+      }
+      else if (node.suggestions == null && node.children.length == 1) {
+        Node child = node.children[0];
+        node.label = node.label + child.label;
+        node.suggestions = child.suggestions;
+        node.children = child.children;
+        return;
+      }
+      else {
+        return;
+      }
+
+      node = parent;
+    }
+  }
+
+  private boolean contains(String key, String display) {
+    Node node = root;
+    int i = 0;
+
+    while (i < key.length()) {
+      int index = node.indexOf(key.charAt(i));
+      if (index < 0 || !key.startsWith(node.children[index].label, i)) {
+        return false;
+      }
+
+      node = node.children[index];
+      i += node.label.length();
+    }
+
+    return node.suggestions != null && node.suggestions.containsKey(display);
+  }
+
+  private Node find(String key) {
+    Node node = root;
+    int i = 0;
+
+    while (i < key.length()) {
+      int index = node.indexOf(key.charAt(i));
+      if (index < 0) {
+        return null;
+      }
+
+      Node child = node.children[index];
+      int common = commonPrefixLength(child.label, key, i);
+
+      if (i + common == key.length()) {
+        // The prefix ends within or at the end of this edge
+        return child;
+      }
+      if (common < child.label.length()) {
+        return null;
+      }
+
+      node = child;
+      i += common;
+    }
+
+    return node;
+  }
+
+  private static boolean collect(Node node, Set<String> suggestions, int limit) {
+    if (node.suggestions != null) {
+      for (String suggestion : node.suggestions.keySet()) {
+        suggestions.add(suggestion);
+        if (suggestions.size() >= limit) {
+          return true;
+        }
+      }
+    }
+
+    for (Node child : node.children) {
+      if (collect(child, suggestions, limit)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static int commonPrefixLength(String label, String key, int offset) {
+    int max = Math.min(label.length(), key.length() - offset);
+    int i = 0;
+    while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private void warnFull() {
+    if (!full) {
+      full = true;
+      logger.warn("Suggestion index reached its maximum of {} entries, skipping new entries", maxEntries);
+    }
+  }
+
+  private static final class Node {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private String label;
+    // Sorted by the first character of their label, which is unique among siblings
+    private Node[] children = NO_CHILDREN;
+    // Suggestion -> number of books, null for nodes that don't end a key
+    private Map<String, Integer> suggestions;
+
+    private Node(String label) {
+      this.label = label;
+    }
+
+    private int indexOf(char c) {
+      int low = 0;
+      int high = children.length - 1;
+
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        char midChar = children[mid].label.charAt(0);
+
+        if (midChar < c) {
+          low = mid + 1;
+        }
+        else if (midChar > c) {
+          high = mid - 1;
+        }
+        else {
+          return mid;
+        }
+      }
+
+      return -(low + 1);
+    }
+
+    private void insertChild(int index, Node child) {
+      Node[] updated = new Node[children.length + 1];
+      System.arraycopy(children, 0, updated, 0, index);
+      updated[index] = child;
+      System.arraycopy(children, index, updated, index + 1, children.length - index);
+      children = updated;
+    }
+
+    private void removeChild(Node child) {
+      int index = indexOf(child.label.charAt(0));
+      Node[] updated = Arrays.copyOf(children, children.length - 1);
+      System.arraycopy(children, index + 1, updated, index, children.length - index - 1);
+      children = updated;
+    }
+  }
+}
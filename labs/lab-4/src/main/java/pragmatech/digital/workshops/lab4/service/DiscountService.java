@@ -1,19 +1,35 @@
 package pragmatech.digital.workshops.lab4.service;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
+import pragmatech.digital.workshops.lab4.dto.DiscountedBook;
 import pragmatech.digital.workshops.lab4.entity.Book;
 import pragmatech.digital.workshops.lab4.entity.BookStatus;
+import pragmatech.digital.workshops.lab4.util.TimeProvider;
 
 /**
  * Service for calculating discounts on books.
  * <p>
  * This implementation contains issues that make it a good candidate for mutation testing.
+ * <p>
+ * The tier boundaries only change once a day, so they are computed once per day as epoch days
+ * and every book is classified with plain {@code long} comparisons.
  */
 @Service
 public class DiscountService {
 
+  private final TimeProvider timeProvider;
+
+  private volatile DiscountTiers tiers;
+
+  public DiscountService(TimeProvider timeProvider) {
+    this.timeProvider = timeProvider;
+  }
+
   /**
    * Calculate the discount percentage for a book.
    * Rules:
@@ -27,29 +43,91 @@ public class DiscountService {
    * @return The discount percentage (0-100)
    */
   public int calculateDiscount(Book book) {
-    // No discount for unavailable books
-    if (book.getStatus() != BookStatus.AVAILABLE) {
-      return 0;
-    }
+    return currentTiers().discountFor(book);
+  }
 
-    LocalDate publishedDate = book.getPublishedDate();
-    LocalDate now = LocalDate.now();
-    LocalDate sixMonthsAgo = now.minusMonths(6);
-    LocalDate twoYearsAgo = now.minusYears(2);
-    LocalDate fiveYearsAgo = now.minusYears(5);
+  /**
+   * Calculate the discounts for many books, reading the clock only once.
+   *
+   * @param books the books to calculate the discounts for
+   * @return the discounted books, in the order of the given books
+   */
+  public List<DiscountedBook> applyDiscounts(Collection<Book> books) {
+    DiscountTiers currentTiers = currentTiers();
 
-    if (publishedDate.isAfter(sixMonthsAgo)) {
-      return 0; // New book, no discount
-    }
+    return books.stream()
+      .map(book -> new DiscountedBook(book, currentTiers.discountFor(book)))
+      .toList();
+  }
+
+  /**
+   * Lazily calculate the discounts for a stream of books, reading the clock only once.
+   *
+   * @param books the books to calculate the discounts for
+   * @return the discounted books, in the order of the given stream
+   */
+  public Stream<DiscountedBook> applyDiscounts(Stream<Book> books) {
+    DiscountTiers currentTiers = currentTiers();
 
-    if (publishedDate.isEqual(sixMonthsAgo) || publishedDate.isAfter(twoYearsAgo)) {
-      return 10; // Medium-aged book: 10% discount
+    return books.map(book -> new DiscountedBook(book, currentTiers.discountFor(book)));
+  }
+
+  /**
+   * The tier boundaries for today. Hold on to them when pricing books one at a time,
+   * e.g. while streaming, to read the clock only once.
+   *
+   * @return the tier boundaries for the current date
+   */
+  public DiscountTiers currentTiers() {
+    LocalDate today = timeProvider.getCurrentDate();
+    DiscountTiers current = tiers;
+
+    if (current == null || current.today() != today.toEpochDay()) {
+      current = DiscountTiers.of(today);
+      tiers = current;
     }
 
-    if (publishedDate.isEqual(twoYearsAgo) || publishedDate.isAfter(fiveYearsAgo)) {
-      return 25; // Older book: 25% discount
+    return current;
+  }
+
+  /**
+   * Tier boundaries of a single day, as epoch days.
+   */
+  public record DiscountTiers(long today, long sixMonthsAgo, long twoYearsAgo, long fiveYearsAgo) {
+
+    static DiscountTiers of(LocalDate today) {
+      return new DiscountTiers(
+        today.toEpochDay(),
+        today.minusMonths(6).toEpochDay(),
+        today.minusYears(2).toEpochDay(),
+        today.minusYears(5).toEpochDay());
     }
 
-    return 50; // Very old book: 50% discount
+    /**
+     * @param book the book to calculate the discount for
+     * @return the discount percentage (0-100)
+     */
+    public int discountFor(Book book) {
+      // No discount for unavailable books
+      if (book.getStatus() != BookStatus.AVAILABLE) {
+        return 0;
+      }
+
+      long publishedDate = book.getPublishedDate().toEpochDay();
+
+      if (publishedDate > sixMonthsAgo) {
+        return 0; // New book, no discount
+      }
+
+      if (publishedDate > twoYearsAgo) {
+        return 10; // Medium-aged book: 10% discount
+      }
+
+      if (publishedDate > fiveYearsAgo) {
+        return 25; // Older book: 25% discount
+      }
+
+      return 50; // Very old book: 50% discount
+    }
   }
 }
@@ -0,0 +1,6 @@
+-- Books created before this migration were enriched synchronously
+ALTER TABLE books
+  ADD COLUMN enrichment_status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
+
+ALTER TABLE books
+  ALTER COLUMN enrichment_status DROP DEFAULT;
@@ -0,0 +1,10 @@
+-- Replace the BIGSERIAL identity column with a pooled sequence so Hibernate can batch inserts.
+-- Every nextval hands out a block of 50 ids; the first block must start after the existing rows.
+CREATE SEQUENCE books_seq INCREMENT BY 50;
+
+SELECT setval('books_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM books), false);
+
+ALTER TABLE books
+  ALTER COLUMN id DROP DEFAULT;
+
+DROP SEQUENCE IF EXISTS books_id_seq;
@@ -0,0 +1,4 @@
+-- Trigram index for typo-tolerant title search. The similarity operator (%) can use it,
+-- a plain similarity(title, ...) > threshold comparison can't.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_books_title_trgm ON books USING GIN (title gin_trgm_ops);
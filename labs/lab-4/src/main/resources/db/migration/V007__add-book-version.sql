@@ -0,0 +1,3 @@
+-- Version for optimistic locking and ETags. A constant default only updates the catalog,
+-- existing rows are not rewritten.
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
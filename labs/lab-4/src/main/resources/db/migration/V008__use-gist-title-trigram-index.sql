@@ -0,0 +1,4 @@
+-- A GIN index only finds the matches, ordering them by similarity still sorts all of them.
+-- A GiST index can also return them nearest first for ORDER BY title <-> ..., so a LIMIT stops early.
+DROP INDEX idx_books_title_trgm;
+CREATE INDEX idx_books_title_trgm ON books USING GIST (title gist_trgm_ops);
@@ -0,0 +1,180 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pragmatech.digital.workshops.lab4.config.SecurityConfig;
+import pragmatech.digital.workshops.lab4.controller.BookController;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.exception.BookVersionMismatchException;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import pragmatech.digital.workshops.lab4.service.DiscountService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the ETag, If-None-Match and If-Match handling of {@link BookController}.
+ */
+@WebMvcTest(BookController.class)
+@Import({SecurityConfig.class, BookControllerConditionalRequestTest.MetricsConfig.class})
+@WithMockUser(roles = {"USER", "ADMIN"})
+class BookControllerConditionalRequestTest {
+
+  private static final String UPDATE_REQUEST = """
+    {"title": "Effective Java", "author": "Joshua Bloch", "publishedDate": "2018-01-06", "status": "AVAILABLE"}
+    """;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private BookService bookService;
+
+  @MockitoBean
+  private BookImportService bookImportService;
+
+  @MockitoBean
+  private BookRepository bookRepository;
+
+  @MockitoBean
+  private DiscountService discountService;
+
+  @MockitoBean
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @Test
+  void shouldReturnVersionAsETag() throws Exception {
+    when(bookService.getBookById(42L)).thenReturn(Optional.of(book(3L)));
+
+    mockMvc.perform(get("/api/books/42"))
+      .andExpect(status().isOk())
+      .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+      .andExpect(jsonPath("$.title").value("Effective Java"));
+  }
+
+  @Test
+  void shouldReturnNotModifiedWithoutBodyWhenETagMatches() throws Exception {
+    when(bookService.getBookById(42L)).thenReturn(Optional.of(book(3L)));
+
+    mockMvc.perform(get("/api/books/42").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+      .andExpect(status().isNotModified())
+      .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+      .andExpect(content().string(""));
+  }
+
+  @Test
+  void shouldReturnBookWhenETagIsOutdated() throws Exception {
+    when(bookService.getBookById(42L)).thenReturn(Optional.of(book(4L)));
+
+    mockMvc.perform(get("/api/books/42").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+      .andExpect(status().isOk())
+      .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+  }
+
+  @Test
+  void shouldPassIfMatchVersionsToUpdate() throws Exception {
+    when(bookService.updateBook(eq(42L), any(), eq(Set.of(3L, 5L)))).thenReturn(Optional.of(book(4L)));
+
+    mockMvc.perform(put("/api/books/42")
+        .header(HttpHeaders.IF_MATCH, "\"3\", W/\"4\", \"5\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(UPDATE_REQUEST))
+      .andExpect(status().isOk())
+      .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+  }
+
+  @Test
+  void shouldUpdateUnconditionallyWithoutIfMatchOrWithWildcard() throws Exception {
+    when(bookService.updateBook(eq(42L), any(), isNull())).thenReturn(Optional.of(book(4L)));
+
+    mockMvc.perform(put("/api/books/42").contentType(MediaType.APPLICATION_JSON).content(UPDATE_REQUEST))
+      .andExpect(status().isOk());
+
+    mockMvc.perform(put("/api/books/42")
+        .header(HttpHeaders.IF_MATCH, "*")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(UPDATE_REQUEST))
+      .andExpect(status().isOk());
+  }
+
+  @Test
+  void shouldReturnPreconditionFailedWhenVersionDoesNotMatch() throws Exception {
+    when(bookService.updateBook(eq(42L), any(), eq(Set.of(3L))))
+      .thenThrow(new BookVersionMismatchException(42L, 4L));
+    when(bookService.deleteBook(42L, Set.of(3L)))
+      .thenThrow(new BookVersionMismatchException(42L, 4L));
+
+    mockMvc.perform(put("/api/books/42")
+        .header(HttpHeaders.IF_MATCH, "\"3\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(UPDATE_REQUEST))
+      .andExpect(status().isPreconditionFailed())
+      .andExpect(jsonPath("$.title").value("Precondition Failed"));
+
+    mockMvc.perform(delete("/api/books/42").header(HttpHeaders.IF_MATCH, "\"3\""))
+      .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  void shouldTreatETagsOutOfVersionRangeAsNotMatching() throws Exception {
+    when(bookService.updateBook(eq(42L), any(), eq(Set.of())))
+      .thenThrow(new BookVersionMismatchException(42L, 4L));
+
+    mockMvc.perform(put("/api/books/42")
+        .header(HttpHeaders.IF_MATCH, "\"99999999999999999999\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(UPDATE_REQUEST))
+      .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  void shouldDeleteWhenVersionMatches() throws Exception {
+    when(bookService.deleteBook(42L, Set.of(3L))).thenReturn(true);
+
+    mockMvc.perform(delete("/api/books/42").header(HttpHeaders.IF_MATCH, "\"3\""))
+      .andExpect(status().isNoContent());
+  }
+
+  private static Book book(Long version) {
+    Book book = new Book("978-0134685991", "Effective Java", "Joshua Bloch", LocalDate.of(2018, 1, 6));
+    book.setId(42L);
+    book.setVersion(version);
+    return book;
+  }
+
+  @TestConfiguration
+  static class MetricsConfig {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pragmatech.digital.workshops.lab4.config.SecurityConfig;
+import pragmatech.digital.workshops.lab4.controller.BookController;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import pragmatech.digital.workshops.lab4.service.DiscountService;
+import pragmatech.digital.workshops.lab4.service.DiscountService.DiscountTiers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that {@link BookController} streams all books as newline delimited JSON.
+ */
+@WebMvcTest(BookController.class)
+@Import({SecurityConfig.class, BookControllerStreamingTest.MetricsConfig.class})
+@WithMockUser(roles = "USER")
+class BookControllerStreamingTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @MockitoBean
+  private BookService bookService;
+
+  @MockitoBean
+  private BookImportService bookImportService;
+
+  @MockitoBean
+  private BookRepository bookRepository;
+
+  @MockitoBean
+  private DiscountService discountService;
+
+  @MockitoBean
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @Test
+  void shouldWriteOneBookPerLine() throws Exception {
+    // Arrange
+    LocalDate today = LocalDate.of(2026, 1, 1);
+    when(discountService.currentTiers()).thenReturn(new DiscountTiers(today.toEpochDay(),
+      today.minusMonths(6).toEpochDay(), today.minusYears(2).toEpochDay(), today.minusYears(5).toEpochDay()));
+
+    doAnswer(invocation -> {
+      Consumer<Book> consumer = invocation.getArgument(0);
+      consumer.accept(book(1L, "Effective Java", LocalDate.of(2018, 1, 6)));
+      consumer.accept(book(2L, "Clean Code", LocalDate.of(2025, 10, 1)));
+      return null;
+    }).when(bookService).streamAllBooks(any());
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    String body = mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+      .andReturn()
+      .getResponse()
+      .getContentAsString();
+
+    // Assert
+    assertThat(body).endsWith("\n");
+
+    String[] lines = body.split("\n");
+    assertThat(lines).hasSize(2);
+
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertThat(first.get("id").asLong()).isEqualTo(1L);
+    assertThat(first.get("title").asText()).isEqualTo("Effective Java");
+    assertThat(first.get("discountPercentage").asInt()).isEqualTo(50);
+
+    JsonNode second = objectMapper.readTree(lines[1]);
+    assertThat(second.get("id").asLong()).isEqualTo(2L);
+    assertThat(second.get("discountPercentage").asInt()).isZero();
+  }
+
+  @Test
+  void shouldWriteEmptyBodyWithoutBooks() throws Exception {
+    // Arrange
+    when(discountService.currentTiers()).thenReturn(new DiscountTiers(0, 0, 0, 0));
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().string(""));
+  }
+
+  private static Book book(Long id, String title, LocalDate publishedDate) {
+    Book book = new Book("isbn-" + id, title, "Author", publishedDate);
+    book.setId(id);
+    return book;
+  }
+
+  @TestConfiguration
+  static class MetricsConfig {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pragmatech.digital.workshops.lab4.config.SecurityConfig;
+import pragmatech.digital.workshops.lab4.controller.BookController;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import pragmatech.digital.workshops.lab4.service.DiscountService;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that {@link BookController} rejects invalid parameters before they reach the services.
+ */
+@WebMvcTest(BookController.class)
+@Import({SecurityConfig.class, BookControllerValidationTest.MetricsConfig.class})
+@WithMockUser(roles = "USER")
+class BookControllerValidationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private BookService bookService;
+
+  @MockitoBean
+  private BookImportService bookImportService;
+
+  @MockitoBean
+  private BookRepository bookRepository;
+
+  @MockitoBean
+  private DiscountService discountService;
+
+  @MockitoBean
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @Test
+  void shouldRejectFuzzySearchThresholdBelowMinimum() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search/fuzzy").param("title", "Clean Cod").param("threshold", "0.05"))
+      .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).findBooksByTitleFuzzy(anyString(), anyDouble(), anyInt());
+  }
+
+  @Test
+  void shouldRejectBlankSearchQuery() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search").param("q", " "))
+      .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).searchBooks(anyString(), anyInt(), anyInt());
+  }
+
+  @Test
+  void shouldRejectMissingSearchQuery() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search"))
+      .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).searchBooks(anyString(), anyInt(), anyInt());
+  }
+
+  @Test
+  void shouldRejectSearchPageSizeBelowMinimum() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search").param("q", "spring").param("size", "0"))
+      .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).searchBooks(anyString(), anyInt(), anyInt());
+  }
+
+  @Test
+  void shouldRejectSearchPageSizeAboveMaximum() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search").param("q", "spring").param("size", "101"))
+      .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).searchBooks(anyString(), anyInt(), anyInt());
+  }
+
+  @Test
+  void shouldRejectNegativeSearchPage() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search").param("q", "spring").param("page", "-1"))
+      .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).searchBooks(anyString(), anyInt(), anyInt());
+  }
+
+  @Test
+  void shouldReturnSearchPage() throws Exception {
+    // Arrange
+    when(bookService.searchBooks("spring", 1, 100))
+      .thenReturn(new PageImpl<>(List.of(), PageRequest.of(1, 100), 120));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/books/search").param("q", "spring").param("page", "1").param("size", "100"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.page").value(1))
+      .andExpect(jsonPath("$.size").value(100))
+      .andExpect(jsonPath("$.totalElements").value(120));
+  }
+
+  @TestConfiguration
+  static class MetricsConfig {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
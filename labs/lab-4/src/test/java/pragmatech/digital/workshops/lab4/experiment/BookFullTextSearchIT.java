@@ -0,0 +1,90 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the full text search against the generated search vector: title matches rank above
+ * author matches, which rank above description matches, and the count query agrees with the pages.
+ * See {@link BookSearchLatencyIT} for the latency on large tables.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+class BookFullTextSearchIT {
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, description, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'), 'fts-' || t.n, t.title, t.author, t.description, DATE '2000-01-01',
+             'AVAILABLE', 'COMPLETED'
+      FROM (VALUES (1, 'Gardening Basics', 'Ann Author', 'All about Quasar gardens'),
+                   (2, 'Quasar Patterns', 'Bob Author', 'Patterns for large systems'),
+                   (3, 'Cooking at Home', 'Quasar Smith', 'Simple recipes'),
+                   (4, 'Unrelated Book', 'Carl Author', 'Nothing to see here')) AS t(n, title, author, description)
+      """);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books WHERE isbn LIKE 'fts-%'");
+  }
+
+  @Test
+  void shouldRankTitleAboveAuthorAboveDescriptionMatches() {
+    // Act
+    Page<Book> result = bookService.searchBooks("quasar", 0, 20);
+
+    // Assert
+    assertThat(result.getContent())
+      .extracting(Book::getTitle)
+      .containsExactly("Quasar Patterns", "Cooking at Home", "Gardening Basics");
+    assertThat(result.getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldReturnRemainingMatchesOnLaterPage() {
+    // Act
+    Page<Book> result = bookService.searchBooks("quasar", 1, 2);
+
+    // Assert
+    assertThat(result.getContent())
+      .extracting(Book::getTitle)
+      .containsExactly("Gardening Basics");
+    assertThat(result.getNumber()).isEqualTo(1);
+    assertThat(result.getTotalElements()).isEqualTo(3);
+    assertThat(result.getTotalPages()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldExcludeNegatedTerms() {
+    // Act
+    Page<Book> result = bookService.searchBooks("quasar -patterns", 0, 20);
+
+    // Assert
+    assertThat(result.getContent())
+      .extracting(Book::getTitle)
+      .containsExactlyInAnyOrder("Cooking at Home", "Gardening Basics");
+    assertThat(result.getTotalElements()).isEqualTo(2);
+  }
+}
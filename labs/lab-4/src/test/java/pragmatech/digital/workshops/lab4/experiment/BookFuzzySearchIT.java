@@ -0,0 +1,97 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the typo-tolerant title search and that PostgreSQL reads the matches nearest first
+ * from the GiST trigram index instead of sorting them. See {@link BookFuzzySearchLatencyIT} for
+ * the latency on large tables.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+class BookFuzzySearchIT {
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'), 'fuzzy-' || t.n, t.title, 'Author', DATE '2000-01-01', 'AVAILABLE', 'COMPLETED'
+      FROM (VALUES (1, 'Effective Java'), (2, 'Effective Java in Depth'), (3, 'Effective Kotlin'),
+                   (4, 'Dragon Chronicles')) AS t(n, title)
+      """);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books WHERE isbn LIKE 'fuzzy-%'");
+  }
+
+  @Test
+  void shouldReturnMostSimilarTitlesFirst() {
+    // Act
+    List<Book> books = bookService.findBooksByTitleFuzzy("Efective Jav", 0.3, 10);
+
+    // Assert
+    assertThat(books)
+      .extracting(Book::getTitle)
+      .containsExactly("Effective Java", "Effective Java in Depth", "Effective Kotlin");
+  }
+
+  @Test
+  void shouldStopAtLimit() {
+    // Act
+    List<Book> books = bookService.findBooksByTitleFuzzy("Efective Jav", 0.3, 1);
+
+    // Assert
+    assertThat(books)
+      .extracting(Book::getTitle)
+      .containsExactly("Effective Java");
+  }
+
+  @Test
+  void shouldReadNearestTitlesFromIndexWithoutSorting() {
+    // Act
+    List<String> plan = transactionTemplate.execute(status -> {
+      // The table is too small for the planner to pick the index on its own
+      jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+      return jdbcTemplate.queryForList("""
+        EXPLAIN SELECT * FROM books
+        WHERE title % 'Efective Jav'
+        ORDER BY title <-> 'Efective Jav'
+        LIMIT 10
+        """, String.class);
+    });
+
+    // Assert
+    assertThat(String.join("\n", plan))
+      .contains("Index Scan using idx_books_title_trgm")
+      .containsPattern("Order By: .*<-> 'Efective Jav'")
+      .doesNotContain("Sort");
+  }
+}
@@ -0,0 +1,112 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the latency percentiles of the trigram title search while the table grows.
+ * With the trigram index and the result limit, the p99 should stay roughly flat.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=BookFuzzySearchLatencyIT}.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookFuzzySearchLatencyIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookFuzzySearchLatencyIT.class);
+
+  private static final int[] TABLE_SIZES = {250_000, 500_000, 1_000_000, 2_000_000};
+  private static final int QUERIES = 200;
+
+  // Typos of titles that exist in the table
+  private static final List<String> QUERIES_WITH_TYPOS = List.of(
+    "Efective Jav", "Dragn Chronicles", "Sprng Handbok", "Ocen Legacy", "Wintr Patterns");
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books");
+  }
+
+  @Test
+  void p99ShouldStayFlatAsTableGrows() {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      VALUES (nextval('books_seq'), 'effective-java', 'Effective Java', 'Joshua Bloch', DATE '2018-01-06',
+              'AVAILABLE', 'COMPLETED')
+      """);
+
+    int rows = 0;
+    for (int tableSize : TABLE_SIZES) {
+      insertRows(rows, tableSize);
+      rows = tableSize;
+
+      // Warm up the buffer cache and the JIT before measuring
+      for (int i = 0; i < 20; i++) {
+        bookService.findBooksByTitleFuzzy(QUERIES_WITH_TYPOS.get(i % QUERIES_WITH_TYPOS.size()), 0.3, 10);
+      }
+
+      long[] latencies = new long[QUERIES];
+      for (int i = 0; i < QUERIES; i++) {
+        long start = System.nanoTime();
+        bookService.findBooksByTitleFuzzy(QUERIES_WITH_TYPOS.get(i % QUERIES_WITH_TYPOS.size()), 0.3, 10);
+        latencies[i] = System.nanoTime() - start;
+      }
+      Arrays.sort(latencies);
+
+      logger.info("{} rows: p50 {} ms, p99 {} ms", tableSize,
+        latencies[QUERIES / 2] / 1_000_000.0, latencies[QUERIES * 99 / 100] / 1_000_000.0);
+    }
+
+    assertThat(bookService.findBooksByTitleFuzzy("Efective Jav", 0.3, 10))
+      .first()
+      .satisfies(book -> assertThat(book.getTitle()).isEqualTo("Effective Java"));
+
+    List<String> plan = jdbcTemplate.queryForList(
+      "EXPLAIN SELECT * FROM books WHERE title % 'Efective Jav' ORDER BY similarity(title, 'Efective Jav') DESC LIMIT 10",
+      String.class);
+    assertThat(plan).anyMatch(line -> line.contains("idx_books_title_trgm"));
+  }
+
+  private void insertRows(int from, int to) {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'),
+             'bench-' || g,
+             (ARRAY['Dragon', 'Spring', 'Java', 'Adventure', 'Kingdom', 'Garden', 'Ocean', 'Winter', 'Shadow', 'River'])[1 + g % 10]
+               || ' ' ||
+             (ARRAY['Chronicles', 'Handbook', 'Secrets', 'Legacy', 'Masters', 'Patterns', 'Tales', 'Empire', 'Journey', 'Mysteries'])[1 + (g / 10) % 10]
+               || ' ' || md5(g::text),
+             'Author ' || (g % 10000),
+             DATE '2000-01-01' + (g % 9000),
+             'AVAILABLE',
+             'COMPLETED'
+      FROM generate_series(?, ?) g
+      """, from + 1, to);
+
+    jdbcTemplate.execute("ANALYZE books");
+  }
+}
@@ -0,0 +1,98 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.dto.BookImportResult;
+import pragmatech.digital.workshops.lab4.dto.BookImportResult.Status;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the one-by-one fallback of {@link BookImportService} against the constraints of the real
+ * schema. The duplicate check is bypassed, as if another request inserted the ISBN in the
+ * meantime, and so is validation, so the database is the one rejecting the rows.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+class BookImportServiceIT {
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books WHERE isbn LIKE '979-%'");
+  }
+
+  @Test
+  void shouldTellDuplicateIsbnsFromOtherConstraintViolations() {
+    // Arrange
+    bookRepository.saveAndFlush(new Book("979-0000000001", "Existing", "Author", LocalDate.of(2020, 1, 1)));
+
+    BookRepository racingRepository = mock(BookRepository.class, delegatesTo(bookRepository));
+    when(racingRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+
+    BookMetadataCache bookMetadataCache = mock(BookMetadataCache.class);
+    when(bookMetadataCache.fetchBookByIsbn(anyString())).thenReturn(Mono.empty());
+
+    BookImportService cut = new BookImportService(racingRepository, bookMetadataCache, bookSuggestionIndex,
+      mock(Validator.class), transactionTemplate, 4, 10);
+
+    // Act
+    List<BookImportResult> results = cut.importBooks(List.of(
+      request("979-0000000001", "Title"),
+      request("979-0000000002", "T".repeat(300)),
+      request("979-0000000003", "Title")));
+
+    // Assert
+    assertThat(results)
+      .extracting(BookImportResult::index, BookImportResult::status)
+      .containsExactly(
+        tuple(0, Status.DUPLICATE),
+        tuple(1, Status.INVALID),
+        tuple(2, Status.CREATED));
+    assertThat(results.get(1).message()).isEqualTo("Rejected by the database");
+    assertThat(bookRepository.findByIsbn("979-0000000003")).isPresent();
+    assertThat(bookRepository.findByIsbn("979-0000000002")).isEmpty();
+  }
+
+  private static BookCreationRequest request(String isbn, String title) {
+    return new BookCreationRequest(isbn, title, "Author", LocalDate.of(2020, 1, 1));
+  }
+}
@@ -0,0 +1,108 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.dto.BookImportResult;
+import pragmatech.digital.workshops.lab4.dto.BookImportResult.Status;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookImportServiceTest {
+
+  private BookRepository bookRepository;
+  private BookImportService cut;
+
+  @BeforeEach
+  void setUp() {
+    bookRepository = mock(BookRepository.class);
+    BookMetadataCache bookMetadataCache = mock(BookMetadataCache.class);
+
+    when(bookMetadataCache.fetchBookByIsbn(anyString())).thenReturn(Mono.empty());
+
+    AtomicLong ids = new AtomicLong();
+    when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<Book> books = invocation.getArgument(0);
+      books.forEach(book -> book.setId(ids.incrementAndGet()));
+      return books;
+    });
+
+    cut = new BookImportService(
+      bookRepository,
+      bookMetadataCache,
+      mock(BookSuggestionIndex.class),
+      Validation.buildDefaultValidatorFactory().getValidator(),
+      new TransactionTemplate(mock(PlatformTransactionManager.class)),
+      4,
+      2);
+  }
+
+  @Test
+  void shouldReportOutcomePerRequestInSubmissionOrder() {
+    when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of("978-0000000002"));
+
+    List<BookImportResult> results = cut.importBooks(List.of(
+      request("978-0000000001"),
+      request("978-0000000002"),
+      request("not-an-isbn"),
+      request("978-0000000001"),
+      request("978-0000000003"),
+      request("978-0000000004")));
+
+    assertThat(results)
+      .extracting(BookImportResult::index, BookImportResult::status)
+      .containsExactly(
+        tuple(0, Status.CREATED),
+        tuple(1, Status.DUPLICATE),
+        tuple(2, Status.INVALID),
+        tuple(3, Status.DUPLICATE),
+        tuple(4, Status.CREATED),
+        tuple(5, Status.CREATED));
+
+    // Three new books with a batch size of two
+    verify(bookRepository, times(2)).saveAll(anyList());
+    verify(bookRepository, times(1)).findExistingIsbns(anyCollection());
+  }
+
+  @Test
+  void shouldReportNullRequestAsInvalid() {
+    List<BookCreationRequest> requests = new ArrayList<>();
+    requests.add(null);
+    requests.add(request("978-0000000001"));
+
+    List<BookImportResult> results = cut.importBooks(requests);
+
+    assertThat(results)
+      .extracting(BookImportResult::index, BookImportResult::status, BookImportResult::message)
+      .containsExactly(
+        tuple(0, Status.INVALID, "must not be null"),
+        tuple(1, Status.CREATED, null));
+  }
+
+  private static BookCreationRequest request(String isbn) {
+    return new BookCreationRequest(isbn, "Title", "Author", LocalDate.of(2020, 1, 1));
+  }
+}
@@ -0,0 +1,108 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares insert throughput of one round trip per row with batched inserts of {@link Book}
+ * entities through the pooled sequence.
+ * <p>
+ * The row by row baseline is a plain JDBC {@code INSERT ... RETURNING id} per book, in one
+ * transaction. It has the round trip pattern {@code GenerationType.IDENTITY} forces on Hibernate,
+ * but none of Hibernate's own overhead, so the actual gap to Hibernate with IDENTITY is larger.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=BookInsertThroughputIT}.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookInsertThroughputIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookInsertThroughputIT.class);
+
+  private static final int ROWS = 10_000;
+  private static final int BATCH_SIZE = 50;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books");
+  }
+
+  @Test
+  void compareRowByRowWithBatchedInserts() {
+    // Warm up connection pool, JIT and Hibernate metadata
+    insertRowByRow("warmup-a", 500);
+    insertBatched("warmup-b", 500);
+    cleanUp();
+
+    long rowByRowNanos = insertRowByRow("row", ROWS);
+    long batchedNanos = insertBatched("batch", ROWS);
+
+    assertThat(bookRepository.count()).isEqualTo(2L * ROWS);
+
+    logger.info("Row by row (JDBC INSERT ... RETURNING): {} rows/s", rowsPerSecond(rowByRowNanos));
+    logger.info("Batched (Hibernate, pooled sequence):   {} rows/s", rowsPerSecond(batchedNanos));
+  }
+
+  private long insertRowByRow(String prefix, int rows) {
+    long start = System.nanoTime();
+
+    transactionTemplate.executeWithoutResult(status -> IntStream.range(0, rows).forEach(i ->
+      jdbcTemplate.queryForObject("""
+          INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+          VALUES (nextval('books_seq'), ?, ?, ?, ?, 'AVAILABLE', 'COMPLETED')
+          RETURNING id
+          """,
+        Long.class, prefix + "-" + i, "Title " + i, "Author", Date.valueOf(LocalDate.of(2020, 1, 1)))));
+
+    return System.nanoTime() - start;
+  }
+
+  private long insertBatched(String prefix, int rows) {
+    long start = System.nanoTime();
+
+    for (int from = 0; from < rows; from += BATCH_SIZE) {
+      List<Book> batch = IntStream.range(from, Math.min(from + BATCH_SIZE, rows))
+        .mapToObj(i -> new Book(prefix + "-" + i, "Title " + i, "Author", LocalDate.of(2020, 1, 1)))
+        .toList();
+
+      transactionTemplate.executeWithoutResult(status -> bookRepository.saveAll(batch));
+    }
+
+    return System.nanoTime() - start;
+  }
+
+  private static long rowsPerSecond(long nanos) {
+    return ROWS * 1_000_000_000L / nanos;
+  }
+}
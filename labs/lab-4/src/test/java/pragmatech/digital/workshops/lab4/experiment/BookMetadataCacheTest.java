@@ -0,0 +1,109 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.client.OpenLibraryApiClient;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookMetadataCacheTest {
+
+  private static final String ISBN = "9780132350884";
+
+  private OpenLibraryApiClient openLibraryApiClient;
+  private SimpleMeterRegistry meterRegistry;
+  private BookMetadataCache cut;
+
+  @BeforeEach
+  void setUp() {
+    openLibraryApiClient = mock(OpenLibraryApiClient.class);
+    meterRegistry = new SimpleMeterRegistry();
+    cut = new BookMetadataCache(openLibraryApiClient, meterRegistry, Duration.ofHours(1), Duration.ofMinutes(1), 100);
+  }
+
+  @Test
+  void shouldOnlyCallUpstreamOnceForRepeatedLookups() {
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(Mono.just(metadata()));
+
+    assertThat(cut.getBookByIsbn(ISBN).title()).isEqualTo("Clean Code");
+    assertThat(cut.getBookByIsbn(ISBN).title()).isEqualTo("Clean Code");
+
+    verify(openLibraryApiClient, times(1)).fetchBookByIsbn(ISBN);
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "bookMetadata").tag("result", "hit").functionCounter().count())
+      .isEqualTo(1);
+  }
+
+  @Test
+  void shouldShareEntryBetweenHyphenatedAndPlainIsbn() {
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(Mono.just(metadata()));
+
+    assertThat(cut.getBookByIsbn("978-0132350884").title()).isEqualTo("Clean Code");
+    assertThat(cut.getBookByIsbn(ISBN).title()).isEqualTo("Clean Code");
+    assertThat(cut.getBookByIsbn("978 0 13 235088 4").title()).isEqualTo("Clean Code");
+
+    verify(openLibraryApiClient, times(1)).fetchBookByIsbn(ISBN);
+  }
+
+  @Test
+  void shouldCoalesceConcurrentMissesIntoSingleUpstreamCall() {
+    Sinks.One<BookMetadataResponse> upstream = Sinks.one();
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(upstream.asMono());
+
+    Mono<BookMetadataResponse> first = cut.fetchBookByIsbn(ISBN);
+    Mono<BookMetadataResponse> second = cut.fetchBookByIsbn(ISBN);
+
+    var firstResult = first.toFuture();
+    var secondResult = second.toFuture();
+
+    upstream.tryEmitValue(metadata());
+
+    assertThat(firstResult.join()).isSameAs(secondResult.join());
+    verify(openLibraryApiClient, times(1)).fetchBookByIsbn(ISBN);
+  }
+
+  @Test
+  void shouldCacheNotFoundResponses() {
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN)).thenReturn(Mono.error(
+      WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8)));
+
+    assertThat(cut.getBookByIsbn(ISBN)).isNull();
+    assertThat(cut.getBookByIsbn(ISBN)).isNull();
+
+    verify(openLibraryApiClient, times(1)).fetchBookByIsbn(ISBN);
+  }
+
+  @Test
+  void shouldNotCacheFailedLookups() {
+    when(openLibraryApiClient.fetchBookByIsbn(ISBN))
+      .thenReturn(Mono.error(new IllegalStateException("OpenLibrary unavailable")))
+      .thenReturn(Mono.just(metadata()));
+
+    assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(IllegalStateException.class);
+    assertThat(cut.getBookByIsbn(ISBN)).isNotNull();
+
+    verify(openLibraryApiClient, times(2)).fetchBookByIsbn(ISBN);
+  }
+
+  private static BookMetadataResponse metadata() {
+    return new BookMetadataResponse(
+      "/books/OL26222911M",
+      "Clean Code",
+      null,
+      null);
+  }
+}
@@ -0,0 +1,142 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import pragmatech.digital.workshops.lab4.client.BookMetadataDecoder;
+import pragmatech.digital.workshops.lab4.config.WebClientConfig;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.ConnectionProvider;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that {@link BookMetadataDecoder} picks the used properties out of OpenLibrary
+ * responses, regardless of how the body is split into buffers.
+ */
+class BookMetadataDecoderTest {
+
+  private static final ResolvableType TYPE = ResolvableType.forClass(BookMetadataResponse.class);
+
+  @RegisterExtension
+  static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+    .options(wireMockConfig().dynamicPort())
+    .build();
+
+  private final BookMetadataDecoder cut = new BookMetadataDecoder();
+
+  @Test
+  void shouldDecodeRecordedEditionSplitIntoSmallBuffers() throws Exception {
+    // Arrange
+    byte[] json = new ClassPathResource("__files/9780132350884-success.json").getContentAsByteArray();
+
+    // Act
+    BookMetadataResponse result = cut.decodeToMono(chunked(json, 7), TYPE, MediaType.APPLICATION_JSON, null).block();
+
+    // Assert
+    assertThat(result.key()).isEqualTo("/books/OL26222911M");
+    assertThat(result.title()).isEqualTo("Clean Code");
+    assertThat(result.description()).isNull();
+    // The edition lists its covers as an array of ids, not as the cover object
+    assertThat(result.covers()).isNull();
+  }
+
+  @Test
+  void shouldReadDescriptionObjectAndCoverIds() {
+    // Arrange
+    String json = """
+      {
+        "title": "Design Patterns",
+        "table_of_contents": [{"title": "Introduction", "pagenum": "1"}],
+        "description": {"type": "/type/text", "value": "Elements of Reusable Object-Oriented Software"},
+        "cover": {"small": 10827044, "medium": 10827045},
+        "number_of_pages": 395
+      }
+      """;
+
+    // Act
+    BookMetadataResponse result = cut.decode(buffer(json.getBytes(StandardCharsets.UTF_8)), TYPE,
+      MediaType.APPLICATION_JSON, null);
+
+    // Assert
+    assertThat(result.title()).isEqualTo("Design Patterns");
+    assertThat(result.description()).isEqualTo("Elements of Reusable Object-Oriented Software");
+    assertThat(result.getCoverUrl()).isEqualTo("https://covers.openlibrary.org/b/id/10827045-M.jpg");
+  }
+
+  @Test
+  void shouldFailForTruncatedResponse() {
+    // Arrange
+    byte[] json = "{\"title\": \"Clean Code\", \"publishers\": [\"Prentice".getBytes(StandardCharsets.UTF_8);
+
+    // Act & Assert
+    assertThatThrownBy(() -> cut.decodeToMono(chunked(json, 8), TYPE, MediaType.APPLICATION_JSON, null).block())
+      .isInstanceOf(DecodingException.class);
+  }
+
+  @Test
+  void shouldDecodeResponsesLargerThanTheDefaultInMemoryLimit() {
+    // Arrange
+    String tableOfContents = IntStream.range(0, 20_000)
+      .mapToObj(i -> "{\"level\": 0, \"label\": \"\", \"title\": \"Chapter " + i + "\", \"pagenum\": \"" + i + "\"}")
+      .collect(Collectors.joining(","));
+    String json = "{\"table_of_contents\": [" + tableOfContents + "], \"title\": \"Clean Code\", "
+      + "\"description\": \"A Handbook of Agile Software Craftsmanship\"}";
+    // Larger than the 256 KB the default Jackson decoder aggregates before failing
+    assertThat(json.length()).isGreaterThan(1024 * 1024);
+
+    wireMockServer.stubFor(get("/isbn/9780132350884")
+      .willReturn(aResponse()
+        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .withBody(json)));
+
+    WebClientConfig webClientConfig = new WebClientConfig();
+    ConnectionProvider connectionProvider = webClientConfig.openLibraryConnectionProvider(1, 1,
+      Duration.ofSeconds(5), Duration.ofSeconds(20), Duration.ofMinutes(5));
+    WebClient webClient = webClientConfig.openLibraryWebClient(connectionProvider, wireMockServer.baseUrl(), 5,
+      false, 1.0);
+
+    try {
+      // Act
+      BookMetadataResponse result = webClient.get().uri("/isbn/{isbn}", "9780132350884")
+        .retrieve()
+        .bodyToMono(BookMetadataResponse.class)
+        .block();
+
+      // Assert
+      assertThat(result.title()).isEqualTo("Clean Code");
+      assertThat(result.description()).isEqualTo("A Handbook of Agile Software Craftsmanship");
+    }
+    finally {
+      connectionProvider.dispose();
+    }
+  }
+
+  private static Flux<DataBuffer> chunked(byte[] json, int chunkSize) {
+    return Flux.range(0, (json.length + chunkSize - 1) / chunkSize)
+      .map(i -> buffer(Arrays.copyOfRange(json, i * chunkSize, Math.min(json.length, (i + 1) * chunkSize))));
+  }
+
+  private static DataBuffer buffer(byte[] bytes) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+  }
+}
@@ -0,0 +1,216 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.entity.EnrichmentStatus;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookMetadataEnricher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookMetadataEnricherTest {
+
+  private static final String ISBN = "978-0134685991";
+
+  @Mock
+  private BookMetadataCache bookMetadataCache;
+
+  @Mock
+  private BookRepository bookRepository;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  private BookMetadataEnricher cut;
+
+  private final Book book = new Book(ISBN, "Effective Java", "Joshua Bloch", LocalDate.of(2018, 1, 6));
+
+  @AfterEach
+  void shutDown() {
+    if (cut != null) {
+      cut.destroy();
+    }
+  }
+
+  @Test
+  void shouldCompleteBookWithFetchedMetadata() {
+    // Arrange
+    cut = enricher(1, 10);
+    when(bookMetadataCache.getBookByIsbn(ISBN)).thenReturn(metadata());
+    when(bookRepository.findById(42L)).thenReturn(Optional.of(book));
+    doAnswer(runInTransaction()).when(transactionTemplate).executeWithoutResult(any());
+
+    // Act
+    cut.enrichAsync(42L, ISBN);
+    cut.destroy();
+
+    // Assert
+    verify(transactionTemplate).executeWithoutResult(any());
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.COMPLETED);
+    assertThat(book.getThumbnailUrl()).isEqualTo("https://covers.openlibrary.org/b/id/8091016-M.jpg");
+    assertThat(book.getDescription()).isEqualTo("Best practices for the Java platform");
+  }
+
+  @Test
+  void shouldFailBookWithoutMetadata() {
+    // Arrange
+    cut = enricher(1, 10);
+    when(bookMetadataCache.getBookByIsbn(ISBN)).thenReturn(null);
+    when(bookRepository.findById(42L)).thenReturn(Optional.of(book));
+    doAnswer(runInTransaction()).when(transactionTemplate).executeWithoutResult(any());
+
+    // Act
+    cut.enrichAsync(42L, ISBN);
+    cut.destroy();
+
+    // Assert
+    verify(transactionTemplate).executeWithoutResult(any());
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED);
+    assertThat(book.getThumbnailUrl()).isNull();
+  }
+
+  @Test
+  void shouldFailBookWhenFetchingMetadataFails() {
+    // Arrange
+    cut = enricher(1, 10);
+    when(bookMetadataCache.getBookByIsbn(ISBN)).thenThrow(new IllegalStateException("OpenLibrary is down"));
+    when(bookRepository.findById(42L)).thenReturn(Optional.of(book));
+    doAnswer(runInTransaction()).when(transactionTemplate).executeWithoutResult(any());
+
+    // Act
+    cut.enrichAsync(42L, ISBN);
+    cut.destroy();
+
+    // Assert
+    verify(transactionTemplate).executeWithoutResult(any());
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED);
+  }
+
+  @Test
+  void shouldFailBookWhenQueueIsFull() throws Exception {
+    // Arrange
+    cut = enricher(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    when(bookMetadataCache.getBookByIsbn("busy")).thenAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return null;
+    });
+    when(bookRepository.findById(42L)).thenReturn(Optional.of(book));
+    doAnswer(runInTransaction()).when(transactionTemplate).executeWithoutResult(any());
+
+    cut.enrichAsync(1L, "busy");
+    started.await();
+    cut.enrichAsync(2L, "busy");
+
+    // Act
+    cut.enrichAsync(42L, ISBN);
+
+    // Assert
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED);
+    release.countDown();
+  }
+
+  @Test
+  void shouldRetryCompletionOnceAfterConflictingEdit() {
+    // Arrange
+    cut = enricher(1, 10);
+    when(bookMetadataCache.getBookByIsbn(ISBN)).thenReturn(metadata());
+    when(bookRepository.findById(42L)).thenReturn(Optional.of(book));
+    doThrow(new OptimisticLockingFailureException("edited"))
+      .doAnswer(runInTransaction())
+      .when(transactionTemplate).executeWithoutResult(any());
+
+    // Act
+    cut.enrichAsync(42L, ISBN);
+    cut.destroy();
+
+    // Assert
+    verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.COMPLETED);
+  }
+
+  @Test
+  void shouldNotMarkBookFailedWhenCompletionConflictsTwice() {
+    // Arrange
+    cut = enricher(1, 10);
+    when(bookMetadataCache.getBookByIsbn(ISBN)).thenReturn(metadata());
+    doThrow(new OptimisticLockingFailureException("edited"))
+      .when(transactionTemplate).executeWithoutResult(any());
+
+    // Act
+    cut.enrichAsync(42L, ISBN);
+    cut.destroy();
+
+    // Assert
+    verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.PENDING);
+  }
+
+  @Test
+  void shouldNotThrowWhenFailingBookConflictsTwice() throws Exception {
+    // Arrange
+    cut = enricher(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    when(bookMetadataCache.getBookByIsbn("busy")).thenAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return null;
+    });
+    doThrow(new OptimisticLockingFailureException("edited"))
+      .when(transactionTemplate).executeWithoutResult(any());
+
+    cut.enrichAsync(1L, "busy");
+    started.await();
+    cut.enrichAsync(2L, "busy");
+
+    // Act & Assert
+    assertThatCode(() -> cut.enrichAsync(42L, ISBN)).doesNotThrowAnyException();
+    verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    release.countDown();
+  }
+
+  private BookMetadataEnricher enricher(int concurrency, int queueCapacity) {
+    return new BookMetadataEnricher(bookMetadataCache, bookRepository, transactionTemplate, concurrency, queueCapacity,
+      false);
+  }
+
+  private static BookMetadataResponse metadata() {
+    return new BookMetadataResponse("/books/OL1M", "Effective Java", "Best practices for the Java platform",
+      Map.of("medium", 8091016));
+  }
+
+  private static Answer<Void> runInTransaction() {
+    return invocation -> {
+      Consumer<TransactionStatus> action = invocation.getArgument(0);
+      action.accept(null);
+      return null;
+    };
+  }
+}
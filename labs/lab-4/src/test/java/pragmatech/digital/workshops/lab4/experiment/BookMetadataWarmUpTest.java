@@ -0,0 +1,145 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.data.domain.Limit;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.dto.MetadataWarmUpProgress;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookMetadataWarmUp;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookMetadataWarmUpTest {
+
+  private static final List<String> ISBNS = List.of("9780132350884", "9780201633610", "9780134757599");
+
+  private BookMetadataCache bookMetadataCache;
+  private BookRepository bookRepository;
+
+  @BeforeEach
+  void setUp() {
+    bookMetadataCache = mock(BookMetadataCache.class);
+    bookRepository = mock(BookRepository.class);
+  }
+
+  @Test
+  void shouldWaitUntilTheApplicationAcceptsTraffic() {
+    // Arrange
+    BookMetadataWarmUp cut = new BookMetadataWarmUp(bookMetadataCache, bookRepository, true, ISBNS, 0, 4);
+
+    // Act
+    cut.onReadinessChange(readiness(ReadinessState.REFUSING_TRAFFIC));
+
+    // Assert
+    assertThat(cut.getProgress().status()).isEqualTo(MetadataWarmUpProgress.Status.PENDING);
+    verify(bookMetadataCache, never()).fetchBookByIsbn(anyString());
+  }
+
+  @Test
+  void shouldCountCachedUnknownAndFailedIsbns() {
+    // Arrange
+    when(bookMetadataCache.fetchBookByIsbn("9780132350884")).thenReturn(Mono.just(metadata()));
+    when(bookMetadataCache.fetchBookByIsbn("9780201633610")).thenReturn(Mono.empty());
+    when(bookMetadataCache.fetchBookByIsbn("9780134757599")).thenReturn(Mono.error(new IllegalStateException("down")));
+    BookMetadataWarmUp cut = new BookMetadataWarmUp(bookMetadataCache, bookRepository, true, ISBNS, 0, 4);
+
+    // Act
+    cut.onReadinessChange(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+
+    // Assert
+    await().atMost(Duration.ofSeconds(2))
+      .untilAsserted(() -> assertThat(cut.getProgress().status()).isEqualTo(MetadataWarmUpProgress.Status.COMPLETED));
+    assertThat(cut.getProgress())
+      .satisfies(progress -> {
+        assertThat(progress.total()).isEqualTo(3);
+        assertThat(progress.cached()).isEqualTo(1);
+        assertThat(progress.notFound()).isEqualTo(1);
+        assertThat(progress.failed()).isEqualTo(1);
+        assertThat(progress.duration()).isNotNull();
+      });
+  }
+
+  @Test
+  void shouldLimitConcurrentRequestsAndRunOnlyOnce() {
+    // Arrange
+    List<String> isbns = List.of("1", "2", "3", "4", "5", "6");
+    Sinks.Empty<Void> release = Sinks.empty();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(bookMetadataCache.fetchBookByIsbn(anyString())).thenAnswer(invocation -> Mono.defer(() -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      return release.asMono().then(Mono.just(metadata())).doOnTerminate(inFlight::decrementAndGet);
+    }));
+    BookMetadataWarmUp cut = new BookMetadataWarmUp(bookMetadataCache, bookRepository, true, isbns, 0, 2);
+
+    // Act
+    cut.onReadinessChange(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+    cut.onReadinessChange(readiness(ReadinessState.REFUSING_TRAFFIC));
+    cut.onReadinessChange(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+
+    // Assert
+    await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(inFlight).hasValue(2));
+    assertThat(cut.getProgress().status()).isEqualTo(MetadataWarmUpProgress.Status.RUNNING);
+
+    release.tryEmitEmpty();
+    await().atMost(Duration.ofSeconds(2))
+      .untilAsserted(() -> assertThat(cut.getProgress().cached()).isEqualTo(6));
+    assertThat(maxInFlight).hasValue(2);
+    verify(bookMetadataCache, times(6)).fetchBookByIsbn(anyString());
+  }
+
+  @Test
+  void shouldAddRecentBooksWithoutDuplicates() {
+    // Arrange
+    when(bookRepository.findRecentIsbns(Limit.of(10))).thenReturn(List.of("9780132350884", "9781617294945"));
+    when(bookMetadataCache.fetchBookByIsbn(anyString())).thenReturn(Mono.just(metadata()));
+    BookMetadataWarmUp cut = new BookMetadataWarmUp(bookMetadataCache, bookRepository, true, ISBNS, 10, 4);
+
+    // Act
+    cut.onReadinessChange(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+
+    // Assert
+    await().atMost(Duration.ofSeconds(2))
+      .untilAsserted(() -> assertThat(cut.getProgress().status()).isEqualTo(MetadataWarmUpProgress.Status.COMPLETED));
+    assertThat(cut.getProgress().total()).isEqualTo(4);
+    verify(bookMetadataCache).fetchBookByIsbn("9781617294945");
+  }
+
+  @Test
+  void shouldReportDisabledWarmUp() {
+    // Arrange
+    BookMetadataWarmUp cut = new BookMetadataWarmUp(bookMetadataCache, bookRepository, false, ISBNS, 0, 4);
+
+    // Act
+    cut.onReadinessChange(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+
+    // Assert
+    assertThat(cut.getProgress().status()).isEqualTo(MetadataWarmUpProgress.Status.DISABLED);
+    verify(bookMetadataCache, never()).fetchBookByIsbn(anyString());
+  }
+
+  private static AvailabilityChangeEvent<ReadinessState> readiness(ReadinessState state) {
+    return new AvailabilityChangeEvent<>(new Object(), state);
+  }
+
+  private static BookMetadataResponse metadata() {
+    return new BookMetadataResponse("/books/OL26222911M", "Clean Code", null, null);
+  }
+}
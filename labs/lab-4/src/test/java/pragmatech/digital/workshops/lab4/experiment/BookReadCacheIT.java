@@ -0,0 +1,135 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements sent to PostgreSQL for a read-heavy mix of lookups by id and ISBN,
+ * once with the second-level cache cleared before every read and once with a warm cache.
+ * {@link BookSecondLevelCacheIT} checks that the cache stays correct on every build.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=BookReadCacheIT}.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookReadCacheIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookReadCacheIT.class);
+
+  private static final int BOOKS = 1_000;
+  private static final int HOT_BOOKS = 100;
+  private static final int READS = 20_000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Cache cache;
+  private Statistics statistics;
+  private List<Book> books;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'), 'bench-' || g, 'Title ' || g, 'Author ' || g, DATE '2000-01-01' + g,
+             'AVAILABLE', 'COMPLETED'
+      FROM generate_series(1, ?) g
+      """, BOOKS);
+
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    cache = sessionFactory.getCache();
+    statistics = sessionFactory.getStatistics();
+
+    books = bookRepository.findAll();
+    cache.evictAllRegions();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    // Deleting through JDBC bypasses Hibernate, so the cached books and ISBNs must be evicted
+    jdbcTemplate.update("DELETE FROM books");
+    cache.evictAllRegions();
+  }
+
+  @Test
+  void warmCacheShouldServeReadsWithoutDatabaseRoundTrips() {
+    // Warm up the JIT before measuring
+    runReads(READS / 10, true);
+    runReads(READS / 10, false);
+
+    Result cold = runReads(READS, true);
+    cache.evictAllRegions();
+    Result warm = runReads(READS, false);
+
+    logger.info("{} reads of {} hot books, half by id, half by ISBN", READS, HOT_BOOKS);
+    logger.info("Cache cleared before every read: {} statements, {} ms", cold.statements(), cold.millis());
+    logger.info("Warm cache:                      {} statements, {} ms, {} hits, {} misses",
+      warm.statements(), warm.millis(), warm.hits(), warm.misses());
+
+    assertThat(cold.statements()).isGreaterThanOrEqualTo(READS);
+    // Only the first read of every hot book goes to the database
+    assertThat(warm.statements()).isLessThanOrEqualTo(2L * HOT_BOOKS);
+  }
+
+  private Result runReads(int reads, boolean clearCache) {
+    statistics.clear();
+    long start = System.nanoTime();
+
+    for (int i = 0; i < reads; i++) {
+      if (clearCache) {
+        cache.evictAllRegions();
+      }
+
+      Book book = books.get(ThreadLocalRandom.current().nextInt(HOT_BOOKS));
+      if (i % 2 == 0) {
+        assertThat(bookService.getBookById(book.getId())).isPresent();
+      }
+      else {
+        assertThat(bookRepository.findByIsbn(book.getIsbn())).isPresent();
+      }
+    }
+
+    return new Result(
+      statistics.getPrepareStatementCount(),
+      (System.nanoTime() - start) / 1_000_000,
+      statistics.getSecondLevelCacheHitCount() + statistics.getNaturalIdCacheHitCount(),
+      statistics.getSecondLevelCacheMissCount() + statistics.getNaturalIdCacheMissCount());
+  }
+
+  private record Result(long statements, long millis, long hits, long misses) {
+  }
+}
@@ -0,0 +1,118 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the latency of full text search computing {@code to_tsvector} per row at query time
+ * with the precomputed, GIN-indexed {@code search_vector} column.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=BookSearchLatencyIT}, optionally
+ * with {@code -Dbenchmark.rows=5000000}.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookSearchLatencyIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookSearchLatencyIT.class);
+
+  private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+  private static final int RUNS = 20;
+  private static final String QUERY = "legend saga1234";
+
+  private static final String LEGACY_SQL = """
+    SELECT id FROM books
+    WHERE to_tsvector('english', title) @@ plainto_tsquery('english', ?)
+    ORDER BY ts_rank(to_tsvector('english', title), plainto_tsquery('english', ?)) DESC
+    LIMIT 20
+    """;
+
+  private static final String INDEXED_SQL = """
+    SELECT b.id FROM books b, websearch_to_tsquery('english', ?) q
+    WHERE b.search_vector @@ q
+    ORDER BY ts_rank(b.search_vector, q) DESC, b.id
+    LIMIT 20
+    """;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books");
+  }
+
+  @Test
+  void compareQueryTimeWithIndexedSearchVector() {
+    insertRows();
+
+    List<Long> legacyIds = jdbcTemplate.queryForList(LEGACY_SQL, Long.class, QUERY, QUERY);
+    List<Long> indexedIds = jdbcTemplate.queryForList(INDEXED_SQL, Long.class, QUERY);
+    assertThat(indexedIds).isNotEmpty().hasSameSizeAs(legacyIds);
+
+    long legacyNanos = averageNanos(() -> jdbcTemplate.queryForList(LEGACY_SQL, Long.class, QUERY, QUERY));
+    long indexedNanos = averageNanos(() -> jdbcTemplate.queryForList(INDEXED_SQL, Long.class, QUERY));
+    long pageNanos = averageNanos(() -> bookService.searchBooks(QUERY, 0, 20));
+
+    List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + INDEXED_SQL, String.class, QUERY);
+    assertThat(plan).anyMatch(line -> line.contains("idx_books_search_vector"));
+
+    logger.info("Full text search over {} rows, average of {} runs", ROWS, RUNS);
+    logger.info("to_tsvector at query time:  {} ms", legacyNanos / 1_000_000.0);
+    logger.info("Indexed search_vector:      {} ms", indexedNanos / 1_000_000.0);
+    logger.info("Search page including count: {} ms", pageNanos / 1_000_000.0);
+  }
+
+  private void insertRows() {
+    // Twenty title words and 5000 series names spread the query over a realistic number of hits
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status, description)
+      SELECT nextval('books_seq'),
+             'bench-' || g,
+             (ARRAY['dragon', 'spring', 'java', 'adventure', 'kingdom', 'garden', 'ocean', 'winter', 'shadow', 'river',
+                    'castle', 'forest', 'journey', 'empire', 'legend', 'secret', 'island', 'mountain', 'storm', 'city'])[1 + g % 20]
+               || ' saga' || (g % 5000),
+             'Author ' || (g % 10000),
+             DATE '2000-01-01' + (g % 9000),
+             'AVAILABLE',
+             'COMPLETED',
+             'A story about ' || md5(g::text)
+      FROM generate_series(1, ?) g
+      """, ROWS);
+
+    jdbcTemplate.execute("ANALYZE books");
+  }
+
+  private static long averageNanos(Runnable query) {
+    // Warm up the buffer cache and the JIT before measuring
+    for (int i = 0; i < 3; i++) {
+      query.run();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < RUNS; i++) {
+      query.run();
+    }
+    return (System.nanoTime() - start) / RUNS;
+  }
+}
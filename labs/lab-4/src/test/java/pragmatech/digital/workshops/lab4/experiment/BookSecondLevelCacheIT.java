@@ -0,0 +1,175 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.dto.BookUpdateRequest;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.entity.BookStatus;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that lookups by id and ISBN never return stale books from the second-level cache
+ * after updates and deletes through {@link BookService}, and counts the statements these writes
+ * send to PostgreSQL. See {@link BookReadCacheIT} for the statement counts of a read-heavy workload.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+class BookSecondLevelCacheIT {
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Cache cache;
+  private Statistics statistics;
+  private List<Book> books;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'), 'cache-' || g, 'Title ' || g, 'Author ' || g, DATE '2000-01-01' + g,
+             'AVAILABLE', 'COMPLETED'
+      FROM generate_series(1, 2) g
+      """);
+
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    cache = sessionFactory.getCache();
+    statistics = sessionFactory.getStatistics();
+
+    books = bookRepository.findAll().stream()
+      .filter(book -> book.getIsbn().startsWith("cache-"))
+      .toList();
+    cache.evictAllRegions();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    // Deleting through JDBC bypasses Hibernate, so the cached books and ISBNs must be evicted
+    jdbcTemplate.update("DELETE FROM books WHERE isbn LIKE 'cache-%'");
+    cache.evictAllRegions();
+  }
+
+  @Test
+  void shouldReadUpdatedAndDeletedBooksFromCache() {
+    // Arrange
+    Book book = books.getFirst();
+    bookService.getBookById(book.getId());
+    bookRepository.findByIsbn(book.getIsbn());
+
+    // Act
+    bookService.updateBook(book.getId(),
+      new BookUpdateRequest("Updated Title", book.getAuthor(), book.getPublishedDate(), BookStatus.BORROWED), null);
+
+    // Assert
+    statistics.clear();
+    assertThat(bookService.getBookById(book.getId())).get()
+      .satisfies(updated -> assertThat(updated.getTitle()).isEqualTo("Updated Title"));
+    assertThat(bookRepository.findByIsbn(book.getIsbn())).get()
+      .satisfies(updated -> assertThat(updated.getStatus()).isEqualTo(BookStatus.BORROWED));
+    // Both reads are answered by the updated cache entries
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+
+    // Act
+    assertThat(bookService.deleteBook(book.getId(), null)).isTrue();
+
+    // Assert
+    assertThat(bookService.getBookById(book.getId())).isEmpty();
+    assertThat(bookRepository.findByIsbn(book.getIsbn())).isEmpty();
+  }
+
+  @Test
+  void shouldUpdateAndDeleteCachedBookWithSingleStatement() {
+    // Arrange
+    Book book = books.getFirst();
+    bookService.getBookById(book.getId());
+
+    // Act
+    statistics.clear();
+    bookService.updateBook(book.getId(),
+      new BookUpdateRequest("Updated Title", book.getAuthor(), book.getPublishedDate(), BookStatus.BORROWED), null);
+
+    // Assert
+    assertThat(statistics.getPrepareStatementCount()).isOne();
+
+    // Act
+    statistics.clear();
+    bookService.deleteBook(book.getId(), null);
+
+    // Assert
+    assertThat(statistics.getPrepareStatementCount()).isOne();
+  }
+
+  @Test
+  void shouldUpdateAndDeleteUncachedBookWithTwoStatements() {
+    // Arrange
+    Book book = books.getLast();
+
+    // Act
+    statistics.clear();
+    bookService.updateBook(book.getId(),
+      new BookUpdateRequest("Updated Title", book.getAuthor(), book.getPublishedDate(), BookStatus.BORROWED), null);
+
+    // Assert
+    // SELECT and UPDATE, the former separate transactions needed a second SELECT for the merge
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    // Act
+    cache.evictAllRegions();
+    statistics.clear();
+    bookService.deleteBook(book.getId(), null);
+
+    // Assert
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNeedSingleStatementForMissingBook() {
+    // Arrange
+    Book book = books.getLast();
+    bookService.deleteBook(book.getId(), null);
+
+    // Act
+    statistics.clear();
+    boolean deleted = bookService.deleteBook(book.getId(), null);
+
+    // Assert
+    assertThat(deleted).isFalse();
+    assertThat(statistics.getPrepareStatementCount()).isOne();
+
+    // Act
+    statistics.clear();
+    boolean updated = bookService.updateBook(book.getId(),
+      new BookUpdateRequest("Title", "Author", book.getPublishedDate(), BookStatus.AVAILABLE), null).isPresent();
+
+    // Assert
+    assertThat(updated).isFalse();
+    assertThat(statistics.getPrepareStatementCount()).isOne();
+  }
+}
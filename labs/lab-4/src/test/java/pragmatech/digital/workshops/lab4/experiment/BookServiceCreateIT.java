@@ -0,0 +1,102 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.exception.BookAlreadyExistsException;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that {@link BookService#createBook} detects duplicate ISBNs through the unique
+ * constraint of the real schema, also when two requests for the same ISBN race.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+class BookServiceCreateIT {
+
+  private static final String ISBN = "duplicate-isbn";
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books WHERE isbn = ?", ISBN);
+  }
+
+  @Test
+  void shouldRejectSecondBookWithSameIsbn() {
+    // Arrange
+    bookService.createBook(request("First Title"));
+
+    // Act & Assert
+    assertThatThrownBy(() -> bookService.createBook(request("Second Title")))
+      .isInstanceOf(BookAlreadyExistsException.class)
+      .hasMessageContaining(ISBN);
+
+    assertThat(jdbcTemplate.queryForList("SELECT title FROM books WHERE isbn = ?", String.class, ISBN))
+      .containsExactly("First Title");
+  }
+
+  @Test
+  void shouldLetOnlyOneOfTwoConcurrentCreatesSucceed() throws Exception {
+    // Arrange
+    CountDownLatch start = new CountDownLatch(1);
+    Callable<Long> create = () -> {
+      start.await();
+      return bookService.createBook(request("Concurrent Title"));
+    };
+
+    // Act
+    int created = 0;
+    int rejected = 0;
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      List<Future<Long>> futures = List.of(executor.submit(create), executor.submit(create));
+      start.countDown();
+
+      for (Future<Long> future : futures) {
+        try {
+          future.get();
+          created++;
+        }
+        catch (ExecutionException ex) {
+          assertThat(ex.getCause()).isInstanceOf(BookAlreadyExistsException.class);
+          rejected++;
+        }
+      }
+    }
+
+    // Assert
+    assertThat(created).isEqualTo(1);
+    assertThat(rejected).isEqualTo(1);
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM books WHERE isbn = ?", Long.class, ISBN))
+      .isEqualTo(1);
+  }
+
+  private BookCreationRequest request(String title) {
+    return new BookCreationRequest(ISBN, title, "Author", LocalDate.of(2020, 1, 1));
+  }
+}
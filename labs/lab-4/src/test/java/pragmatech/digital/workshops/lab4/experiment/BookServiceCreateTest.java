@@ -0,0 +1,74 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
+import pragmatech.digital.workshops.lab4.exception.BookAlreadyExistsException;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookMetadataEnricher;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies how {@link BookService#createBook} translates constraint violations. See
+ * {@link BookServiceCreateIT} for the same against the unique constraint of the real schema.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookServiceCreateTest {
+
+  @Mock
+  private BookRepository bookRepository;
+
+  @Mock
+  private BookMetadataEnricher bookMetadataEnricher;
+
+  @Mock
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @InjectMocks
+  private BookService cut;
+
+  @Test
+  void shouldRejectDuplicateIsbnReportedByUniqueConstraint() {
+    // Arrange
+    BookCreationRequest request = new BookCreationRequest("1234567890", "Original Title", "Mike", LocalDate.now());
+
+    when(bookRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key",
+      new ConstraintViolationException("duplicate key", new SQLException(), "books_isbn_key")));
+
+    // Act & Assert
+    assertThatThrownBy(() -> cut.createBook(request))
+      .isInstanceOf(BookAlreadyExistsException.class)
+      .hasMessageContaining("1234567890");
+
+    verifyNoInteractions(bookMetadataEnricher, bookSuggestionIndex);
+  }
+
+  @Test
+  void shouldRethrowOtherConstraintViolations() {
+    // Arrange
+    BookCreationRequest request = new BookCreationRequest("1234567890", null, "Mike", LocalDate.now());
+
+    DataIntegrityViolationException notNullViolation = new DataIntegrityViolationException("null value",
+      new ConstraintViolationException("null value", new SQLException(), "title"));
+    when(bookRepository.saveAndFlush(any())).thenThrow(notNullViolation);
+
+    // Act & Assert
+    assertThatThrownBy(() -> cut.createBook(request)).isSameAs(notNullViolation);
+
+    verifyNoInteractions(bookMetadataEnricher, bookSuggestionIndex);
+  }
+}
@@ -0,0 +1,66 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import pragmatech.digital.workshops.lab4.dto.BookPage;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.exception.InvalidCursorException;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookServicePaginationTest {
+
+  @Mock
+  private BookRepository bookRepository;
+
+  @InjectMocks
+  private BookService cut;
+
+  @Test
+  void shouldReturnCursorPointingAfterLastBookWhenMoreBooksExist() {
+    when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+      .thenReturn(books(1, 3));
+
+    BookPage firstPage = cut.getBooks(null, 2);
+
+    assertThat(firstPage.books()).extracting(Book::getId).containsExactly(1L, 2L);
+    assertThat(firstPage.nextCursor()).isNotNull();
+
+    when(bookRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+      .thenReturn(books(3, 3));
+
+    BookPage secondPage = cut.getBooks(firstPage.nextCursor(), 2);
+
+    assertThat(secondPage.books()).extracting(Book::getId).containsExactly(3L);
+    assertThat(secondPage.nextCursor()).isNull();
+  }
+
+  @Test
+  void shouldRejectMalformedCursor() {
+    assertThatThrownBy(() -> cut.getBooks("not-a-cursor", 10))
+      .isInstanceOf(InvalidCursorException.class);
+  }
+
+  private static List<Book> books(long fromId, long toId) {
+    return LongStream.rangeClosed(fromId, toId)
+      .mapToObj(id -> {
+        Book book = new Book("isbn-" + id, "Title " + id, "Author", LocalDate.of(2020, 1, 1));
+        book.setId(id);
+        return book;
+      })
+      .toList();
+  }
+}
@@ -0,0 +1,49 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceSearchTest {
+
+  @Mock
+  private BookRepository bookRepository;
+
+  @InjectMocks
+  private BookService cut;
+
+  @Test
+  void shouldSetSimilarityThresholdBeforeFuzzySearch() {
+    Book book = new Book("9780134685991", "Effective Java", "Joshua Bloch", LocalDate.of(2018, 1, 6));
+    when(bookRepository.findBooksByTitleFuzzy("Efective Jav", 10)).thenReturn(List.of(book));
+
+    List<Book> result = cut.findBooksByTitleFuzzy("Efective Jav", 0.4, 10);
+
+    assertThat(result).containsExactly(book);
+
+    InOrder inOrder = inOrder(bookRepository);
+    inOrder.verify(bookRepository).setSimilarityThreshold("0.4");
+    inOrder.verify(bookRepository).findBooksByTitleFuzzy("Efective Jav", 10);
+  }
+
+  @Test
+  void shouldCapNumberOfFuzzyResults() {
+    when(bookRepository.findBooksByTitleFuzzy("Java", 50)).thenReturn(List.of());
+
+    assertThat(cut.findBooksByTitleFuzzy("Java", 0.3, 10_000)).isEmpty();
+  }
+}
@@ -0,0 +1,117 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+import pragmatech.digital.workshops.lab4.dto.BookUpdateRequest;
+import pragmatech.digital.workshops.lab4.entity.BookStatus;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that updates and deletes through {@link BookService} only reach the
+ * {@link BookSuggestionIndex} once their transaction has committed.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+class BookSuggestionIndexIT {
+
+  private static final String TITLE = "Quokka Field Guide";
+  private static final String AUTHOR = "Wallaby Author";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private BookService bookService;
+
+  @Autowired
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  private Long bookId;
+
+  @BeforeEach
+  void setUp() {
+    bookId = jdbcTemplate.queryForObject("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      VALUES (nextval('books_seq'), 'suggest-1', ?, ?, DATE '2020-01-01', 'AVAILABLE', 'COMPLETED')
+      RETURNING id
+      """, Long.class, TITLE, AUTHOR);
+    bookSuggestionIndex.add(TITLE, AUTHOR);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books WHERE isbn = 'suggest-1'");
+  }
+
+  @Test
+  void shouldRenameSuggestionAfterCommittedUpdate() {
+    // Act
+    bookService.updateBook(bookId, update("Numbat Field Guide"), null);
+
+    // Assert
+    assertThat(bookSuggestionIndex.suggest("numbat", 10)).containsExactly("Numbat Field Guide");
+    assertThat(bookSuggestionIndex.suggest("quokka", 10)).isEmpty();
+
+    bookSuggestionIndex.remove("Numbat Field Guide", AUTHOR);
+  }
+
+  @Test
+  void shouldKeepSuggestionAfterRolledBackUpdate() {
+    // Act
+    transactionTemplate.executeWithoutResult(status -> {
+      bookService.updateBook(bookId, update("Bilby Field Guide"), null);
+      status.setRollbackOnly();
+    });
+
+    // Assert
+    assertThat(bookSuggestionIndex.suggest("bilby", 10)).isEmpty();
+    assertThat(bookSuggestionIndex.suggest("quokka", 10)).containsExactly(TITLE);
+
+    bookSuggestionIndex.remove(TITLE, AUTHOR);
+  }
+
+  @Test
+  void shouldRemoveSuggestionAfterCommittedDelete() {
+    // Act
+    bookService.deleteBook(bookId, null);
+
+    // Assert
+    assertThat(bookSuggestionIndex.suggest("quokka", 10)).isEmpty();
+  }
+
+  @Test
+  void shouldKeepSuggestionAfterRolledBackDelete() {
+    // Act
+    transactionTemplate.executeWithoutResult(status -> {
+      bookService.deleteBook(bookId, null);
+      status.setRollbackOnly();
+    });
+
+    // Assert
+    assertThat(bookSuggestionIndex.suggest("quokka", 10)).containsExactly(TITLE);
+
+    bookSuggestionIndex.remove(TITLE, AUTHOR);
+  }
+
+  private static BookUpdateRequest update(String title) {
+    return new BookUpdateRequest(title, AUTHOR, LocalDate.of(2020, 1, 1), BookStatus.AVAILABLE);
+  }
+}
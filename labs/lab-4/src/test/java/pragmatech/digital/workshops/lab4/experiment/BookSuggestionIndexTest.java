@@ -0,0 +1,71 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import org.junit.jupiter.api.Test;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSuggestionIndexTest {
+
+  private final BookSuggestionIndex cut = new BookSuggestionIndex(null, null, 1_000, 50);
+
+  @Test
+  void shouldSuggestTitlesAndAuthorsByPrefixOfAnyWord() {
+    cut.add("Effective Java", "Joshua Bloch");
+    cut.add("Java Concurrency in Practice", "Brian Goetz");
+    cut.add("Clean Code", "Robert C. Martin");
+
+    assertThat(cut.suggest("jav", 10)).containsExactly("Effective Java", "Java Concurrency in Practice");
+    assertThat(cut.suggest("JOSH", 10)).containsExactly("Joshua Bloch");
+    assertThat(cut.suggest("java c", 10)).containsExactly("Java Concurrency in Practice");
+    assertThat(cut.suggest("python", 10)).isEmpty();
+  }
+
+  @Test
+  void shouldIgnoreAccentsAndLimitSuggestions() {
+    cut.add("Über Java", "José Paumard");
+    cut.add("Java Performance", "Scott Oaks");
+
+    assertThat(cut.suggest("uber", 10)).containsExactly("Über Java");
+    assertThat(cut.suggest("jose", 10)).containsExactly("José Paumard");
+    assertThat(cut.suggest("j", 2)).hasSize(2);
+  }
+
+  @Test
+  void shouldOnlyDropSuggestionOnceNoBookUsesItAnymore() {
+    cut.add("Effective Java", "Joshua Bloch");
+    cut.add("Effective Java", "Joshua Bloch");
+    cut.add("Effective Kotlin", "Marcin Moskala");
+
+    cut.remove("Effective Java", "Joshua Bloch");
+    assertThat(cut.suggest("effective", 10)).containsExactly("Effective Java", "Effective Kotlin");
+
+    cut.remove("Effective Java", "Joshua Bloch");
+    assertThat(cut.suggest("effective", 10)).containsExactly("Effective Kotlin");
+    assertThat(cut.suggest("java", 10)).isEmpty();
+    assertThat(cut.suggest("effective k", 10)).containsExactly("Effective Kotlin");
+  }
+
+  @Test
+  void shouldReturnToEmptyAfterRemovingEverything() {
+    cut.add("Effective Java", "Joshua Bloch");
+    cut.add("Effective Kotlin", "Marcin Moskala");
+
+    cut.remove("Effective Kotlin", "Marcin Moskala");
+    cut.remove("Effective Java", "Joshua Bloch");
+
+    assertThat(cut.size()).isZero();
+    assertThat(cut.suggest("e", 10)).isEmpty();
+  }
+
+  @Test
+  void shouldStopAddingEntriesWhenFull() {
+    BookSuggestionIndex index = new BookSuggestionIndex(null, null, 3, 50);
+
+    index.add("Effective Java", "Joshua Bloch");
+    index.add("Clean Code", "Robert C. Martin");
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.suggest("clean", 10)).isEmpty();
+  }
+}
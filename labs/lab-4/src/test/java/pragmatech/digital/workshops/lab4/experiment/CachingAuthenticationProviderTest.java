@@ -0,0 +1,77 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import pragmatech.digital.workshops.lab4.config.CachingAuthenticationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingAuthenticationProviderTest {
+
+  private PasswordEncoder passwordEncoder;
+  private CachingAuthenticationProvider cut;
+
+  @BeforeEach
+  void setUp() {
+    passwordEncoder = spy(new BCryptPasswordEncoder(4));
+
+    InMemoryUserDetailsManager userDetailsService = new InMemoryUserDetailsManager(User.builder()
+      .username("user")
+      .password(passwordEncoder.encode("user"))
+      .roles("USER")
+      .build());
+
+    DaoAuthenticationProvider delegate = new DaoAuthenticationProvider(passwordEncoder);
+    delegate.setUserDetailsService(userDetailsService);
+
+    cut = new CachingAuthenticationProvider(delegate, new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+  }
+
+  @Test
+  void shouldOnlyVerifyPasswordOnceForRepeatedRequests() {
+    Authentication first = cut.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "user"));
+    Authentication second = cut.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "user"));
+
+    assertThat(first.isAuthenticated()).isTrue();
+    assertThat(second.isAuthenticated()).isTrue();
+    assertThat(second.getName()).isEqualTo("user");
+    assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+    verify(passwordEncoder, times(1)).matches(eq("user"), anyString());
+  }
+
+  @Test
+  void shouldNotCacheFailedAttempts() {
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> cut.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "wrong")))
+        .isInstanceOf(BadCredentialsException.class);
+    }
+
+    verify(passwordEncoder, times(2)).matches(eq("wrong"), anyString());
+  }
+
+  @Test
+  void shouldNotAcceptOtherPasswordAfterSuccessfulLogin() {
+    cut.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "user"));
+
+    assertThatThrownBy(() -> cut.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "User")))
+      .isInstanceOf(BadCredentialsException.class);
+  }
+}
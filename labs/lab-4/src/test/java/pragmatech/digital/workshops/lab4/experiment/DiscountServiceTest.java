@@ -1,13 +1,19 @@
 package pragmatech.digital.workshops.lab4.experiment;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import pragmatech.digital.workshops.lab4.dto.DiscountedBook;
 import pragmatech.digital.workshops.lab4.entity.Book;
 import pragmatech.digital.workshops.lab4.entity.BookStatus;
 import pragmatech.digital.workshops.lab4.service.DiscountService;
+import pragmatech.digital.workshops.lab4.util.DefaultTimeProvider;
+import pragmatech.digital.workshops.lab4.util.TimeProvider;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -24,7 +30,7 @@ class DiscountServiceTest {
 
   @BeforeEach
   void setUp() {
-    cut = new DiscountService();
+    cut = new DiscountService(new DefaultTimeProvider());
     book = new Book("1234567890", "Test Book", "Test Author", LocalDate.now());
   }
 
@@ -93,4 +99,54 @@ class DiscountServiceTest {
     // Assert
     assertThat(discount).isEqualTo(0);
   }
+
+  @Test
+  @DisplayName("Bulk pricing should apply the same tiers as single pricing")
+  void shouldApplyDiscountsToAllBooksInOrder() {
+    // Arrange
+    List<Book> books = List.of(
+      new Book("1", "New", "Author", LocalDate.now().minusMonths(3)),
+      new Book("2", "Medium", "Author", LocalDate.now().minusMonths(12)),
+      new Book("3", "Older", "Author", LocalDate.now().minusYears(3)),
+      new Book("4", "Very old", "Author", LocalDate.now().minusYears(6)));
+
+    // Act
+    List<DiscountedBook> discountedBooks = cut.applyDiscounts(books);
+
+    // Assert
+    assertThat(discountedBooks)
+      .extracting(DiscountedBook::discountPercentage)
+      .containsExactly(0, 10, 25, 50);
+    assertThat(discountedBooks)
+      .extracting(DiscountedBook::book)
+      .containsExactlyElementsOf(books);
+  }
+
+  @Test
+  @DisplayName("Tiers should move with the date provided by the TimeProvider")
+  void shouldRecalculateTiersWhenDateChanges() {
+    // Arrange
+    AtomicReference<LocalDate> today = new AtomicReference<>(LocalDate.of(2025, 1, 1));
+    cut = new DiscountService(new FixedTimeProvider(today));
+    book.setPublishedDate(LocalDate.of(2024, 7, 2));
+
+    // Act & Assert
+    assertThat(cut.calculateDiscount(book)).isEqualTo(0);
+
+    today.set(LocalDate.of(2025, 1, 2));
+    assertThat(cut.calculateDiscount(book)).isEqualTo(10);
+  }
+
+  private record FixedTimeProvider(AtomicReference<LocalDate> today) implements TimeProvider {
+
+    @Override
+    public LocalDate getCurrentDate() {
+      return today.get();
+    }
+
+    @Override
+    public LocalDateTime getCurrentDateTime() {
+      return today.get().atStartOfDay();
+    }
+  }
 }
@@ -0,0 +1,118 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import pragmatech.digital.workshops.lab4.config.FailedAuthenticationRateLimitFilter;
+import pragmatech.digital.workshops.lab4.config.SecurityConfig;
+import pragmatech.digital.workshops.lab4.controller.BookController;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookImportService;
+import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
+import pragmatech.digital.workshops.lab4.service.DiscountService;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that {@link FailedAuthenticationRateLimitFilter} runs before Spring Security and limits
+ * requests with bad credentials per IP address. Every test uses its own IP address.
+ */
+@WebMvcTest(BookController.class)
+@Import({SecurityConfig.class, FailedAuthenticationRateLimitFilterTest.MetricsConfig.class})
+@TestPropertySource(properties = {
+  "book.rate-limit.failed-authentication.capacity=2",
+  "book.rate-limit.failed-authentication.refill-per-second=0.01"
+})
+class FailedAuthenticationRateLimitFilterTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private BookService bookService;
+
+  @MockitoBean
+  private BookImportService bookImportService;
+
+  @MockitoBean
+  private BookRepository bookRepository;
+
+  @MockitoBean
+  private DiscountService discountService;
+
+  @MockitoBean
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @Test
+  void shouldRefuseCredentialsOnceTooManyAttemptsFailed() throws Exception {
+    // Arrange
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/api/books/42").with(httpBasic("user", "wrong")).with(remoteAddr("192.0.2.1")))
+        .andExpect(status().isUnauthorized());
+    }
+
+    // Act & Assert
+    mockMvc.perform(get("/api/books/42").with(httpBasic("user", "wrong")).with(remoteAddr("192.0.2.1")))
+      .andExpect(status().isTooManyRequests())
+      .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+
+    mockMvc.perform(get("/api/books/42").with(httpBasic("user", "user")).with(remoteAddr("192.0.2.1")))
+      .andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void shouldNotCountSuccessfulAuthentications() throws Exception {
+    // Act
+    for (int i = 0; i < 3; i++) {
+      mockMvc.perform(get("/api/books/42").with(httpBasic("user", "user")).with(remoteAddr("192.0.2.2")))
+        .andExpect(status().isNotFound());
+    }
+
+    // Assert
+    mockMvc.perform(get("/api/books/42").with(httpBasic("user", "wrong")).with(remoteAddr("192.0.2.2")))
+      .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void shouldKeepSeparateLimitsPerIpAddress() throws Exception {
+    // Arrange
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/api/books/42").with(httpBasic("user", "wrong")).with(remoteAddr("192.0.2.3")))
+        .andExpect(status().isUnauthorized());
+    }
+
+    // Act & Assert
+    mockMvc.perform(get("/api/books/42").with(httpBasic("user", "user")).with(remoteAddr("192.0.2.4")))
+      .andExpect(status().isNotFound());
+  }
+
+  private static RequestPostProcessor remoteAddr(String remoteAddr) {
+    return request -> {
+      request.setRemoteAddr(remoteAddr);
+      return request;
+    };
+  }
+
+  @TestConfiguration
+  static class MetricsConfig {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
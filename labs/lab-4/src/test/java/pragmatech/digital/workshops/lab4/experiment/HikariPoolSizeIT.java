@@ -0,0 +1,192 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a fixed number of request threads against PostgreSQL through Hikari pools of different
+ * sizes and logs throughput, request latency and the time spent waiting for a connection.
+ * <p>
+ * Each request loads a book by id and a page of books, the two most frequent queries of the API.
+ * Beyond a few connections per core more connections only add contention in the database, so
+ * throughput levels off or drops while the latency keeps growing. The pool size where throughput
+ * peaks is the value for {@code spring.datasource.hikari.maximum-pool-size}.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=HikariPoolSizeIT}, optionally with
+ * {@code -Dbenchmark.threads=400} and {@code -Dbenchmark.pool-sizes=4,8,16}.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import(LocalDevTestcontainerConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HikariPoolSizeIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(HikariPoolSizeIT.class);
+
+  private static final int BOOKS = 10_000;
+  private static final int PAGE_SIZE = 20;
+  private static final int CORES = Runtime.getRuntime().availableProcessors();
+  // As many concurrent requests as Tomcat serves with its default of 200 threads
+  private static final int THREADS = Integer.getInteger("benchmark.threads", 200);
+  private static final int REQUESTS_PER_THREAD = 100;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private DataSourceProperties dataSourceProperties;
+
+  private List<Long> bookIds;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("""
+      INSERT INTO books (id, isbn, title, author, published_date, status, enrichment_status)
+      SELECT nextval('books_seq'), 'bench-' || g, 'Title ' || g, 'Author ' || g, DATE '2000-01-01' + g,
+             'AVAILABLE', 'COMPLETED'
+      FROM generate_series(1, ?) g
+      """, BOOKS);
+    bookIds = jdbcTemplate.queryForList("SELECT id FROM books ORDER BY id", Long.class);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM books");
+  }
+
+  @Test
+  void shouldFindPoolSizeWithHighestThroughput() throws Exception {
+    List<Result> results = new ArrayList<>();
+    for (int poolSize : poolSizes()) {
+      results.add(runLoad(poolSize));
+    }
+
+    logger.info("{} cores, {} request threads x {} requests", CORES, THREADS, REQUESTS_PER_THREAD);
+    results.forEach(result -> logger.info(
+      "Pool size {}: {} requests/s, p50 {} ms, p99 {} ms, {} ms average wait for a connection",
+      result.poolSize(), result.throughput(), result.p50Millis(), result.p99Millis(),
+      String.format("%.2f", result.meanWaitMillis())));
+
+    Result best = results.stream()
+      .max((a, b) -> Long.compare(a.throughput(), b.throughput()))
+      .orElseThrow();
+    logger.info("Highest throughput with a pool of {} connections, {} per core", best.poolSize(),
+      String.format("%.1f", (double) best.poolSize() / CORES));
+
+    assertThat(best.throughput()).isPositive();
+  }
+
+  private Result runLoad(int poolSize) throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    try (HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+      .type(HikariDataSource.class)
+      .build()) {
+      dataSource.setPoolName("pool-" + poolSize);
+      dataSource.setMaximumPoolSize(poolSize);
+      dataSource.setMinimumIdle(poolSize);
+      dataSource.setConnectionTimeout(TimeUnit.SECONDS.toMillis(30));
+      dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      JdbcTemplate pooled = new JdbcTemplate(dataSource);
+
+      // Warm up the connections, their prepared statements and the JIT before measuring
+      run(pooled, Math.min(THREADS, 50), REQUESTS_PER_THREAD / 2);
+      Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+      long warmUpCount = acquire.count();
+      double warmUpWaitMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+      long start = System.nanoTime();
+      long[] latencies = run(pooled, THREADS, REQUESTS_PER_THREAD);
+      long elapsed = System.nanoTime() - start;
+
+      Arrays.sort(latencies);
+      return new Result(
+        poolSize,
+        latencies.length * 1_000_000_000L / elapsed,
+        latencies[latencies.length / 2] / 1_000_000,
+        latencies[(int) (latencies.length * 0.99)] / 1_000_000,
+        (acquire.totalTime(TimeUnit.MILLISECONDS) - warmUpWaitMillis) / (acquire.count() - warmUpCount));
+    }
+  }
+
+  private long[] run(JdbcTemplate pooled, int threads, int requestsPerThread) throws Exception {
+    long[] latencies = new long[threads * requestsPerThread];
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int offset = t * requestsPerThread;
+        futures.add(executor.submit(() -> {
+          for (int r = 0; r < requestsPerThread; r++) {
+            long start = System.nanoTime();
+            request(pooled);
+            latencies[offset + r] = System.nanoTime() - start;
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    return latencies;
+  }
+
+  private void request(JdbcTemplate pooled) {
+    long id = bookIds.get(ThreadLocalRandom.current().nextInt(BOOKS - PAGE_SIZE));
+
+    Map<String, Object> book = pooled.queryForMap("SELECT * FROM books WHERE id = ?", id);
+    List<Map<String, Object>> page = pooled.queryForList(
+      "SELECT * FROM books WHERE id > ? ORDER BY id LIMIT ?", id, PAGE_SIZE);
+
+    assertThat(book).isNotEmpty();
+    assertThat(page).hasSize(PAGE_SIZE);
+  }
+
+  private static TreeSet<Integer> poolSizes() {
+    TreeSet<Integer> sizes = new TreeSet<>();
+    String configured = System.getProperty("benchmark.pool-sizes");
+    if (configured != null) {
+      Arrays.stream(configured.split(",")).map(String::trim).map(Integer::valueOf).forEach(sizes::add);
+      return sizes;
+    }
+
+    // Around the common starting point of two connections per core
+    for (int size : new int[]{1, CORES, 2 * CORES, 4 * CORES, 8 * CORES, 16 * CORES, 50}) {
+      sizes.add(size);
+    }
+    return sizes;
+  }
+
+  private record Result(int poolSize, long throughput, long p50Millis, long p99Millis, double meanWaitMillis) {
+  }
+}
@@ -1,7 +1,6 @@
 package pragmatech.digital.workshops.lab4.experiment;
 
 import java.time.LocalDate;
-import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,16 +8,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import pragmatech.digital.workshops.lab4.client.OpenLibraryApiClient;
 import pragmatech.digital.workshops.lab4.dto.BookCreationRequest;
-import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
 import pragmatech.digital.workshops.lab4.entity.Book;
 import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookMetadataEnricher;
 import pragmatech.digital.workshops.lab4.service.BookService;
+import pragmatech.digital.workshops.lab4.service.BookSuggestionIndex;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,31 +36,26 @@ import static org.mockito.Mockito.when;
 class MockAnnotationTest {
 
   @Mock
-  private OpenLibraryApiClient openLibraryApiClient;
+  private BookMetadataEnricher bookMetadataEnricher;
 
   @Mock
   private BookRepository bookRepository;
 
+  @Mock
+  private BookSuggestionIndex bookSuggestionIndex;
+
   @InjectMocks
   private BookService bookService;
 
   @Test
-  void shouldReturnBookWhenEnrichingWithMetadata() {
+  void shouldQueueMetadataEnrichmentForSavedBook() {
     // Arrange
     BookCreationRequest bookCreationRequest = new BookCreationRequest("1234567890", "Original Title", "Mike", LocalDate.now());
 
-    BookMetadataResponse metadata = new BookMetadataResponse(
-      "/books/123",
-      "Enriched Title",
-      null, null, null, null, null, null, null,
-      "Book description", null, null);
-
     Book savedBook = new Book();
     savedBook.setId(42L);
 
-    when(openLibraryApiClient.getBookByIsbn("1234567890")).thenReturn(metadata);
-    when(bookRepository.findByIsbn(anyString())).thenReturn(Optional.empty());
-    when(bookRepository.save(any())).thenReturn(savedBook);
+    when(bookRepository.saveAndFlush(any())).thenReturn(savedBook);
 
     // Act
     Long createdBookId = bookService.createBook(bookCreationRequest);
@@ -70,7 +63,7 @@ class MockAnnotationTest {
     // Assert
     assertThat(createdBookId).isNotNull();
 
-    verify(openLibraryApiClient, times(1)).getBookByIsbn(anyString());
-    verify(bookRepository, times(1)).save(any());
+    verify(bookMetadataEnricher, times(1)).enrichAsync(42L, "1234567890");
+    verify(bookRepository, times(1)).saveAndFlush(any());
   }
 }
@@ -1,7 +1,6 @@
 package pragmatech.digital.workshops.lab4.experiment;
 
 import java.time.LocalDate;
-import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,10 +16,12 @@ import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
 import pragmatech.digital.workshops.lab4.entity.Book;
 import pragmatech.digital.workshops.lab4.repository.BookRepository;
 import pragmatech.digital.workshops.lab4.service.BookService;
+import reactor.core.publisher.Mono;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,15 +60,14 @@ class MockBeanAnnotationTest {
     BookMetadataResponse metadata = new BookMetadataResponse(
       "/books/123",
       "Enriched Title",
-      null, null, null, null, null, null, null,
-      "Book description", null, null);
+      "Book description",
+      null);
 
     Book savedBook = new Book();
     savedBook.setId(42L);
 
-    when(openLibraryApiClient.getBookByIsbn("1234567890")).thenReturn(metadata);
-    when(bookRepository.findByIsbn(anyString())).thenReturn(Optional.empty());
-    when(bookRepository.save(any())).thenReturn(savedBook);
+    when(openLibraryApiClient.fetchBookByIsbn("1234567890")).thenReturn(Mono.just(metadata));
+    when(bookRepository.saveAndFlush(any())).thenReturn(savedBook);
 
 
     // Act
@@ -76,7 +76,8 @@ class MockBeanAnnotationTest {
     // Assert
     assertThat(createdBookId).isNotNull();
 
-    verify(openLibraryApiClient, times(4)).getBookByIsbn(anyString());
-    verify(bookRepository, times(1)).save(any());
+    // Three lookups come from the metadata warm-up, the fourth is the enrichment after saving the book
+    verify(openLibraryApiClient, timeout(2000).times(4)).fetchBookByIsbn(anyString());
+    verify(bookRepository, times(1)).saveAndFlush(any());
   }
 }
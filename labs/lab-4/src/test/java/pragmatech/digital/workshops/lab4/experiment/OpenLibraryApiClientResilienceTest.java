@@ -0,0 +1,256 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pragmatech.digital.workshops.lab4.client.BookMetadataCache;
+import pragmatech.digital.workshops.lab4.client.OpenLibraryApiClient;
+import pragmatech.digital.workshops.lab4.config.OpenLibraryResilienceConfig;
+import pragmatech.digital.workshops.lab4.dto.BookMetadataResponse;
+import pragmatech.digital.workshops.lab4.entity.Book;
+import pragmatech.digital.workshops.lab4.entity.EnrichmentStatus;
+import pragmatech.digital.workshops.lab4.repository.BookRepository;
+import pragmatech.digital.workshops.lab4.service.BookMetadataEnricher;
+import reactor.core.publisher.Mono;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the circuit breaker, bulkhead and hedging of {@link OpenLibraryApiClient} against a
+ * WireMock stand-in for OpenLibrary with injected latency and errors.
+ */
+class OpenLibraryApiClientResilienceTest {
+
+  private static final String ISBN = "9780132350884";
+  private static final Duration SLOW_CALL_THRESHOLD = Duration.ofMillis(200);
+
+  @RegisterExtension
+  static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+    .options(wireMockConfig().dynamicPort())
+    .build();
+
+  private final OpenLibraryResilienceConfig resilienceConfig = new OpenLibraryResilienceConfig();
+
+  private SimpleMeterRegistry meterRegistry;
+  private CircuitBreaker circuitBreaker;
+  private WebClient webClient;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    // Opens after 4 calls when half of them failed or were slower than 200 ms
+    circuitBreaker = resilienceConfig.openLibraryCircuitBreaker(meterRegistry, 50, 50, SLOW_CALL_THRESHOLD, 4, 4,
+      Duration.ofMinutes(1), 1);
+    webClient = WebClient.builder()
+      .baseUrl(wireMockServer.baseUrl())
+      .build();
+  }
+
+  @Test
+  void shouldOpenCircuitBreakerWhenCallsAreSlowAndThenFailFast() {
+    // Arrange
+    stubBook(aResponse().withFixedDelay(500));
+    OpenLibraryApiClient cut = client(16, false);
+
+    // Act
+    for (int i = 0; i < 4; i++) {
+      assertThat(cut.getBookByIsbn(ISBN).title()).isEqualTo("Clean Code");
+    }
+
+    // Assert
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(CallNotPermittedException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(SLOW_CALL_THRESHOLD);
+    wireMockServer.verify(4, getRequestedFor(urlEqualTo("/isbn/" + ISBN)));
+  }
+
+  @Test
+  void shouldOpenCircuitBreakerWhenCallsFail() {
+    // Arrange
+    stubBook(aResponse().withStatus(503));
+    OpenLibraryApiClient cut = client(16, false);
+
+    // Act
+    for (int i = 0; i < 4; i++) {
+      assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+    }
+
+    // Assert
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(meterRegistry.get("resilience4j.circuitbreaker.state").tag("name", "openLibrary").tag("state", "open")
+      .gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotCountUnknownIsbnsAsFailures() {
+    // Arrange
+    stubBook(aResponse().withStatus(404));
+    OpenLibraryApiClient cut = client(16, false);
+
+    // Act
+    for (int i = 0; i < 4; i++) {
+      assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(WebClientResponseException.NotFound.class);
+    }
+
+    // Assert
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void shouldRejectCallsBeyondBulkheadLimit() {
+    // Arrange
+    stubBook(aResponse().withFixedDelay(500));
+    OpenLibraryApiClient cut = client(1, false);
+
+    // Act
+    var inFlight = cut.fetchBookByIsbn(ISBN).toFuture();
+
+    // Assert
+    assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(BulkheadFullException.class);
+    assertThat(inFlight.join().title()).isEqualTo("Clean Code");
+    assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+  }
+
+  @Test
+  void shouldAnswerFromHedgedRequestWhenFirstRequestIsSlow() {
+    // Arrange
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .inScenario("hedging")
+      .whenScenarioStateIs(Scenario.STARTED)
+      .willReturn(bookResponse(aResponse().withFixedDelay(3_000)))
+      .willSetStateTo("fast"));
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .inScenario("hedging")
+      .whenScenarioStateIs("fast")
+      .willReturn(bookResponse(aResponse())));
+    OpenLibraryApiClient cut = client(16, true);
+
+    // Act
+    long start = System.nanoTime();
+    BookMetadataResponse result = cut.getBookByIsbn(ISBN);
+
+    // Assert
+    assertThat(result.title()).isEqualTo("Clean Code");
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    assertThat(meterRegistry.get("book.metadata.api.hedged.requests").counter().count()).isEqualTo(1);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/isbn/" + ISBN)));
+  }
+
+  @Test
+  void shouldWaitForFirstRequestWhenHedgedRequestFails() {
+    // Arrange
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .inScenario("failing-hedge")
+      .whenScenarioStateIs(Scenario.STARTED)
+      .willReturn(bookResponse(aResponse().withFixedDelay(500)))
+      .willSetStateTo("reset"));
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .inScenario("failing-hedge")
+      .whenScenarioStateIs("reset")
+      .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+    OpenLibraryApiClient cut = client(16, true);
+
+    // Act
+    BookMetadataResponse result = cut.getBookByIsbn(ISBN);
+
+    // Assert
+    assertThat(result.title()).isEqualTo("Clean Code");
+    assertThat(meterRegistry.get("book.metadata.api.hedged.requests").counter().count()).isEqualTo(1);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/isbn/" + ISBN)));
+  }
+
+  @Test
+  void shouldReportErrorWhenBothHedgedRequestsFail() {
+    // Arrange
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .willReturn(aResponse().withStatus(503).withFixedDelay(300)));
+    OpenLibraryApiClient cut = client(16, true);
+
+    // Act & Assert
+    assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/isbn/" + ISBN)));
+  }
+
+  @Test
+  void shouldNotHedgeUnknownIsbns() {
+    // Arrange
+    wireMockServer.stubFor(get("/isbn/" + ISBN).willReturn(aResponse().withStatus(404)));
+    OpenLibraryApiClient cut = client(16, true);
+
+    // Act & Assert
+    assertThatThrownBy(() -> cut.getBookByIsbn(ISBN)).isInstanceOf(WebClientResponseException.NotFound.class);
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/isbn/" + ISBN)));
+  }
+
+  @Test
+  void shouldSaveBookWithoutThumbnailWhileCircuitBreakerIsOpen() {
+    // Arrange
+    stubBook(aResponse().withFixedDelay(3_000));
+    circuitBreaker.transitionToOpenState();
+
+    Book book = new Book(ISBN, "Clean Code", "Robert C. Martin", LocalDate.of(2008, 8, 1));
+    BookRepository bookRepository = mock(BookRepository.class);
+    when(bookRepository.findById(42L)).thenReturn(Optional.of(book));
+
+    BookMetadataCache bookMetadataCache = new BookMetadataCache(client(16, false), meterRegistry, Duration.ofHours(1),
+      Duration.ofMinutes(1), 100);
+    BookMetadataEnricher enricher = new BookMetadataEnricher(bookMetadataCache, bookRepository,
+      new TransactionTemplate(mock(PlatformTransactionManager.class)), 1, 10, false);
+
+    // Act
+    enricher.enrichAsync(42L, ISBN);
+
+    // Assert
+    await().atMost(Duration.ofSeconds(1))
+      .untilAsserted(() -> assertThat(book.getEnrichmentStatus()).isEqualTo(EnrichmentStatus.FAILED));
+    assertThat(book.getThumbnailUrl()).isNull();
+    wireMockServer.verify(0, getRequestedFor(urlEqualTo("/isbn/" + ISBN)));
+
+    enricher.destroy();
+  }
+
+  private OpenLibraryApiClient client(int maxConcurrentCalls, boolean hedging) {
+    Bulkhead bulkhead = resilienceConfig.openLibraryBulkhead(meterRegistry, maxConcurrentCalls);
+    return new OpenLibraryApiClient(webClient, circuitBreaker, bulkhead, meterRegistry, hedging, Duration.ofMillis(100));
+  }
+
+  private static void stubBook(ResponseDefinitionBuilder response) {
+    wireMockServer.stubFor(get("/isbn/" + ISBN).willReturn(bookResponse(response)));
+  }
+
+  private static ResponseDefinitionBuilder bookResponse(ResponseDefinitionBuilder response) {
+    return response
+      .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+      .withBodyFile(ISBN + "-success.json");
+  }
+}
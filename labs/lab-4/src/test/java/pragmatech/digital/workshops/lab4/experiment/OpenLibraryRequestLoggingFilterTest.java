@@ -0,0 +1,162 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import pragmatech.digital.workshops.lab4.client.OpenLibraryRequestLoggingFilter;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
+import static com.github.tomakehurst.wiremock.client.WireMock.serviceUnavailable;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the sampling and the key-value pairs of {@link OpenLibraryRequestLoggingFilter}.
+ * Every test requests its own URI template, as tests running in parallel log to the same logger.
+ */
+class OpenLibraryRequestLoggingFilterTest {
+
+  private static final String ISBN = "9780132350884";
+
+  @RegisterExtension
+  static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+    .options(wireMockConfig().dynamicPort())
+    .build();
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(OpenLibraryRequestLoggingFilter.class);
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+  }
+
+  @Test
+  void shouldLogSampledRequestWithUriTemplateStatusAndSize() {
+    // Arrange
+    wireMockServer.stubFor(get("/sampled/" + ISBN)
+      .willReturn(aResponse()
+        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .withBody("{\"title\": \"Clean Code\"}")));
+    WebClient cut = webClient(1.0);
+
+    // Act
+    cut.get().uri("/sampled/{isbn}", ISBN).retrieve().bodyToMono(String.class).block();
+
+    // Assert
+    assertThat(eventsFor("/sampled/{isbn}")).singleElement().satisfies(event -> {
+      assertThat(event.getMessage()).isEqualTo("OpenLibrary request");
+      assertThat(keyValues(event))
+        .containsEntry("method", "GET")
+        .containsEntry("status", "200")
+        .containsEntry("bytes", "23")
+        .containsKey("duration_ms");
+    });
+  }
+
+  @Test
+  void shouldSkipUnsampledSuccessfulRequests() {
+    // Arrange
+    wireMockServer.stubFor(get("/unsampled/" + ISBN).willReturn(aResponse().withBody("{}")));
+    WebClient cut = webClient(0.0);
+
+    // Act
+    for (int i = 0; i < 10; i++) {
+      cut.get().uri("/unsampled/{isbn}", ISBN).retrieve().toBodilessEntity().block();
+    }
+
+    // Assert
+    assertThat(eventsFor("/unsampled/{isbn}")).isEmpty();
+  }
+
+  @Test
+  void shouldAlwaysLogErrorResponses() {
+    // Arrange
+    wireMockServer.stubFor(get("/unavailable/" + ISBN).willReturn(serviceUnavailable()));
+    WebClient cut = webClient(0.0);
+
+    // Act
+    assertThatThrownBy(() -> cut.get().uri("/unavailable/{isbn}", ISBN).retrieve().bodyToMono(String.class).block())
+      .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+
+    // Assert
+    assertThat(eventsFor("/unavailable/{isbn}")).singleElement().satisfies(event -> {
+      assertThat(event.getLevel()).isEqualTo(Level.WARN);
+      assertThat(keyValues(event)).containsEntry("status", "503");
+    });
+  }
+
+  @Test
+  void shouldSkipUnsampledNotFoundResponses() {
+    // Arrange
+    wireMockServer.stubFor(get("/unsampled-missing/" + ISBN).willReturn(notFound()));
+    WebClient cut = webClient(0.0);
+
+    // Act
+    assertThatThrownBy(() -> cut.get().uri("/unsampled-missing/{isbn}", ISBN).retrieve().bodyToMono(String.class).block())
+      .isInstanceOf(WebClientResponseException.NotFound.class);
+
+    // Assert
+    assertThat(eventsFor("/unsampled-missing/{isbn}")).isEmpty();
+  }
+
+  @Test
+  void shouldLogSampledNotFoundResponsesAtInfo() {
+    // Arrange
+    wireMockServer.stubFor(get("/missing/" + ISBN).willReturn(notFound()));
+    WebClient cut = webClient(1.0);
+
+    // Act
+    assertThatThrownBy(() -> cut.get().uri("/missing/{isbn}", ISBN).retrieve().bodyToMono(String.class).block())
+      .isInstanceOf(WebClientResponseException.NotFound.class);
+
+    // Assert
+    assertThat(eventsFor("/missing/{isbn}")).singleElement().satisfies(event -> {
+      assertThat(event.getLevel()).isEqualTo(Level.INFO);
+      assertThat(keyValues(event)).containsEntry("status", "404");
+    });
+  }
+
+  private static WebClient webClient(double sampleRate) {
+    return WebClient.builder()
+      .baseUrl(wireMockServer.baseUrl())
+      .filter(new OpenLibraryRequestLoggingFilter(sampleRate))
+      .build();
+  }
+
+  private List<ILoggingEvent> eventsFor(String uriTemplate) {
+    // The template includes the base URL
+    return appender.list.stream()
+      .filter(event -> keyValues(event).get("uri").equals(wireMockServer.baseUrl() + uriTemplate))
+      .toList();
+  }
+
+  private static Map<String, String> keyValues(ILoggingEvent event) {
+    return event.getKeyValuePairs().stream()
+      .collect(Collectors.toMap(pair -> pair.key, pair -> String.valueOf(pair.value)));
+  }
+}
@@ -0,0 +1,47 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import pragmatech.digital.workshops.lab4.config.RateLimitRequestFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitRequestFilterTest {
+
+  private final RateLimitRequestFilter cut = new RateLimitRequestFilter(
+    Jackson2ObjectMapperBuilder.json().build(), true, 1, 0.1, 1, Duration.ofMinutes(1));
+
+  @Test
+  void shouldAnswerWithProblemDetailOnceLimitIsExceeded() throws Exception {
+    // Arrange
+    cut.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // Act
+    cut.doFilter(request(), response, new MockFilterChain());
+
+    // Assert
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+    assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+    assertThat(response.getContentAsString())
+      .contains("\"type\":\"https://api.bookshelf.com/errors/too-many-requests\"")
+      .contains("\"title\":\"Too Many Requests\"")
+      .contains("\"status\":429")
+      .contains("\"instance\":\"/api/books\"");
+  }
+
+  private static MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.setRemoteAddr("192.0.2.1");
+    return request;
+  }
+}
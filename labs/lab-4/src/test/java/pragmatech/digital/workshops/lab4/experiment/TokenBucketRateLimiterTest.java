@@ -0,0 +1,111 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import pragmatech.digital.workshops.lab4.config.TokenBucketRateLimiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  private final TokenBucketRateLimiter cut = new TokenBucketRateLimiter(3, 1, 4, Duration.ofMinutes(1), now::get);
+
+  @Test
+  void shouldAllowBurstUpToCapacityAndReportWaitTime() {
+    assertThat(cut.tryAcquire("alice")).isZero();
+    assertThat(cut.tryAcquire("alice")).isZero();
+    assertThat(cut.tryAcquire("alice")).isZero();
+
+    assertThat(cut.tryAcquire("alice")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+    assertThat(cut.tryAcquire("alice")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(600));
+  }
+
+  @Test
+  void shouldReportWaitTimeWithoutTakingToken() {
+    assertThat(cut.waitNanos("alice")).isZero();
+
+    for (int i = 0; i < 3; i++) {
+      cut.tryAcquire("alice");
+    }
+
+    assertThat(cut.waitNanos("alice")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    assertThat(cut.waitNanos("alice")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertThat(cut.waitNanos("alice")).isZero();
+    assertThat(cut.tryAcquire("alice")).isZero();
+  }
+
+  @Test
+  void shouldRefillTokensOverTime() {
+    for (int i = 0; i < 3; i++) {
+      cut.tryAcquire("alice");
+    }
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+    assertThat(cut.tryAcquire("alice")).isZero();
+    assertThat(cut.tryAcquire("alice")).isZero();
+    assertThat(cut.tryAcquire("alice")).isPositive();
+  }
+
+  @Test
+  void shouldKeepSeparateBucketsPerClient() {
+    for (int i = 0; i < 3; i++) {
+      cut.tryAcquire("alice");
+    }
+
+    assertThat(cut.tryAcquire("alice")).isPositive();
+    assertThat(cut.tryAcquire("bob")).isZero();
+  }
+
+  @Test
+  void shouldEvictIdleBuckets() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 1, Duration.ofMinutes(1), now::get);
+
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire("client-" + i);
+    }
+    assertThat(limiter.size()).isEqualTo(100);
+
+    now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+    limiter.tryAcquire("bob");
+
+    assertThat(limiter.size()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNeverHandOutMoreTokensThanCapacityUnderContention() throws InterruptedException {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1_000, 0.001, 4, Duration.ofMinutes(1));
+    AtomicInteger granted = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(8);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (int thread = 0; thread < 8; thread++) {
+        executor.execute(() -> {
+          for (int i = 0; i < 1_000; i++) {
+            if (limiter.tryAcquire("alice") == 0) {
+              granted.incrementAndGet();
+            }
+          }
+          done.countDown();
+        });
+      }
+
+      assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    assertThat(granted).hasValue(1_000);
+  }
+}
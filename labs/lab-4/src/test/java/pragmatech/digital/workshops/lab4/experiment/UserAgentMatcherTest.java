@@ -0,0 +1,62 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pragmatech.digital.workshops.lab4.config.UserAgentMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserAgentMatcherTest {
+
+  private final UserAgentMatcher cut = UserAgentMatcher.compile(List.of("openai", "claude", "anthropic", "gpt"));
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "Mozilla/5.0 AppleWebKit/537.36 (KHTML, like Gecko; compatible; GPTBot/1.1; +https://openai.com/gptbot)",
+    "Claude-Web/1.0",
+    "ANTHROPIC-AI",
+    "ChatGPT-User",
+    "über-crawler anthropic"
+  })
+  void shouldMatchKeywordsIgnoringCase(String userAgent) {
+    assertThat(cut.matches(userAgent)).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+    "claud",
+    "g p t",
+    "gpü",
+    ""
+  })
+  void shouldNotMatchUserAgentsWithoutKeywords(String userAgent) {
+    assertThat(cut.matches(userAgent)).isFalse();
+  }
+
+  @Test
+  void shouldMatchOverlappingKeywordsViaFailureLinks() {
+    UserAgentMatcher matcher = UserAgentMatcher.compile(List.of("abcd", "bce"));
+
+    assertThat(matcher.matches("xabce")).isTrue();
+    assertThat(matcher.matches("xabcx")).isFalse();
+  }
+
+  @Test
+  void shouldIgnoreBlankKeywords() {
+    UserAgentMatcher matcher = UserAgentMatcher.compile(List.of(" ", "Bot "));
+
+    assertThat(matcher.getKeywords()).containsExactly("bot");
+    assertThat(matcher.matches("Mozilla/5.0")).isFalse();
+  }
+
+  @Test
+  void shouldRejectNonAsciiKeywords() {
+    assertThatThrownBy(() -> UserAgentMatcher.compile(List.of("bött")))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,176 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import pragmatech.digital.workshops.lab4.LocalDevTestcontainerConfig;
+import pragmatech.digital.workshops.lab4.config.WireMockContextInitializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares Tomcat on platform threads with Tomcat on virtual threads under a closed-loop load of
+ * many concurrent clients, each calling an endpoint that blocks on a slow downstream service.
+ * <p>
+ * With platform threads at most {@code server.tomcat.threads.max} (200) requests block at the
+ * same time and the rest queue up, with virtual threads every request gets its own thread.
+ * The gain only shows as long as waiting dominates, once the CPU is saturated both modes are
+ * equally fast, or virtual threads slightly slower.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=VirtualThreadLoadIT}, optionally
+ * with {@code -Dbenchmark.clients=5000} and {@code -Dbenchmark.latency-ms=100}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+  properties = "book.rate-limit.enabled=false")
+@ContextConfiguration(initializers = WireMockContextInitializer.class)
+@Import({LocalDevTestcontainerConfig.class, VirtualThreadLoadIT.BlockingEndpointConfig.class})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+  private static final int CLIENTS = Integer.getInteger("benchmark.clients", 2_000);
+  private static final int REQUESTS_PER_CLIENT = 5;
+  private static final Duration DOWNSTREAM_LATENCY = Duration.ofMillis(Long.getLong("benchmark.latency-ms", 500));
+
+  private static final Map<String, Result> results = new ConcurrentHashMap<>();
+
+  @AfterAll
+  static void logComparison() {
+    logger.info("{} clients x {} requests, {} ms downstream latency", CLIENTS, REQUESTS_PER_CLIENT,
+      DOWNSTREAM_LATENCY.toMillis());
+    results.forEach((mode, result) -> logger.info("{} threads: {} requests/s, p50 {} ms, p99 {} ms, max {} ms",
+      mode, result.throughput(), result.p50Millis(), result.p99Millis(), result.maxMillis()));
+  }
+
+  @Nested
+  @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+  class PlatformThreads {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void shouldServeConcurrentClients() {
+      results.put("Platform", runLoad(port, false));
+    }
+  }
+
+  @Nested
+  @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+  class VirtualThreads {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void shouldServeConcurrentClients() {
+      results.put("Virtual", runLoad(port, true));
+    }
+  }
+
+  private static Result runLoad(int port, boolean expectVirtual) {
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tests/blocking"))
+      .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString("user:user".getBytes(StandardCharsets.UTF_8)))
+      .build();
+
+    // Asynchronous requests keep the clients off the virtual thread scheduler the server runs on
+    try (HttpClient client = HttpClient.newHttpClient()) {
+      // Warm up the JIT, the authentication cache and the connection pool before measuring
+      run(client, request, Math.min(CLIENTS, 200), expectVirtual);
+      return run(client, request, CLIENTS, expectVirtual);
+    }
+  }
+
+  private static Result run(HttpClient client, HttpRequest request, int clients, boolean expectVirtual) {
+    long[] latencies = new long[clients * REQUESTS_PER_CLIENT];
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger unexpected = new AtomicInteger();
+
+    long start = System.nanoTime();
+    CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+    for (int c = 0; c < clients; c++) {
+      done[c] = sendSequentially(client, request, REQUESTS_PER_CLIENT, (latency, response) -> {
+        latencies[next.getAndIncrement()] = latency;
+        if (response == null || response.statusCode() != 200 || Boolean.parseBoolean(response.body()) != expectVirtual) {
+          unexpected.incrementAndGet();
+        }
+      });
+    }
+    CompletableFuture.allOf(done).join();
+    long elapsed = System.nanoTime() - start;
+
+    assertThat(unexpected).as("failed requests or requests on the wrong kind of thread").hasValue(0);
+
+    Arrays.sort(latencies);
+    return new Result(
+      latencies.length * 1_000_000_000L / elapsed,
+      latencies[latencies.length / 2] / 1_000_000,
+      latencies[(int) (latencies.length * 0.99)] / 1_000_000,
+      latencies[latencies.length - 1] / 1_000_000);
+  }
+
+  private static CompletableFuture<Void> sendSequentially(HttpClient client, HttpRequest request, int remaining,
+                                                          BiConsumer<Long, HttpResponse<String>> recorder) {
+    if (remaining == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    long start = System.nanoTime();
+    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+      .handle((response, ex) -> {
+        recorder.accept(System.nanoTime() - start, response);
+        return null;
+      })
+      .thenCompose(ignored -> sendSequentially(client, request, remaining - 1, recorder));
+  }
+
+  private record Result(long throughput, long p50Millis, long p99Millis, long maxMillis) {
+  }
+
+  /**
+   * Stands in for a request that blocks on JDBC or on {@code OpenLibraryApiClient#getBookByIsbn}.
+   * Answers whether the request ran on a virtual thread.
+   */
+  @TestConfiguration
+  static class BlockingEndpointConfig {
+
+    @Bean
+    RouterFunction<ServerResponse> blockingEndpoint() {
+      return RouterFunctions.route()
+        .GET("/api/tests/blocking", request -> {
+          Thread.sleep(DOWNSTREAM_LATENCY);
+          return ServerResponse.ok().body(String.valueOf(Thread.currentThread().isVirtual()));
+        })
+        .build();
+    }
+  }
+}
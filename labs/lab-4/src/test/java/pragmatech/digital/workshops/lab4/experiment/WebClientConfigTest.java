@@ -0,0 +1,150 @@
+package pragmatech.digital.workshops.lab4.experiment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import pragmatech.digital.workshops.lab4.config.WebClientConfig;
+import reactor.core.publisher.Mono;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquirePendingLimitException;
+import reactor.netty.resources.ConnectionProvider;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the connection pool and compression settings of the OpenLibrary {@link WebClient}.
+ */
+class WebClientConfigTest {
+
+  private static final String ISBN = "9780132350884";
+
+  @RegisterExtension
+  static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+    .options(wireMockConfig().dynamicPort())
+    .build();
+
+  private final WebClientConfig webClientConfig = new WebClientConfig();
+
+  private SimpleMeterRegistry meterRegistry;
+  private ConnectionProvider connectionProvider;
+
+  @BeforeEach
+  void setUp() {
+    // Reactor Netty publishes pool metrics to the global registry, which Spring Boot adds its registry to
+    meterRegistry = new SimpleMeterRegistry();
+    Metrics.addRegistry(meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionProvider.dispose();
+    Metrics.removeRegistry(meterRegistry);
+  }
+
+  @Test
+  void shouldRequestAndDecompressGzipResponses() {
+    // Arrange
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .withHeader(HttpHeaders.ACCEPT_ENCODING, containing("gzip"))
+      .willReturn(aResponse()
+        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .withBodyFile(ISBN + "-success.json")));
+    WebClient cut = webClient(10, 10);
+
+    // Act
+    var response = cut.get().uri("/isbn/{isbn}", ISBN).retrieve().toEntity(String.class).block();
+
+    // Assert
+    // The stub only matches requests accepting gzip, the decoder removes the Content-Encoding header
+    assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+    assertThat(response.getBody()).contains("\"title\": \"Clean Code\"");
+  }
+
+  @Test
+  void shouldReuseConnectionsAndPublishPoolMetrics() {
+    // Arrange
+    stubSlowBook(Duration.ZERO);
+    WebClient cut = webClient(10, 10);
+
+    // Act
+    for (int i = 0; i < 5; i++) {
+      cut.get().uri("/isbn/{isbn}", ISBN).retrieve().toBodilessEntity().block();
+    }
+
+    // Assert
+    // A connection may be returned to the pool just after the next request acquired one
+    assertThat(meterRegistry.get("reactor.netty.connection.provider.total.connections")
+      .tag("name", "openLibrary").gauge().value()).isLessThan(5);
+    assertThat(meterRegistry.get("reactor.netty.connection.provider.max.connections")
+      .tag("name", "openLibrary").gauge().value()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldRejectRequestsBeyondPendingAcquireLimit() {
+    // Arrange
+    stubSlowBook(Duration.ofMillis(500));
+    WebClient cut = webClient(1, 1);
+
+    // Act
+    // One request holds the only connection, one waits for it and the third is rejected
+    List<CompletableFuture<Optional<Throwable>>> results = IntStream.range(0, 3)
+      .mapToObj(i -> cut.get().uri("/isbn/{isbn}", ISBN).retrieve().toBodilessEntity()
+        .map(response -> Optional.<Throwable>empty())
+        .onErrorResume(ex -> Mono.just(Optional.of(ex)))
+        .toFuture())
+      .toList();
+
+    // Assert
+    assertThat(results.stream().map(CompletableFuture::join).flatMap(Optional::stream))
+      .singleElement()
+      .satisfies(ex -> assertThat(ex).hasRootCauseInstanceOf(PoolAcquirePendingLimitException.class));
+  }
+
+  @Test
+  void shouldUpgradeToHttp2WhenEnabled() {
+    // Arrange
+    stubSlowBook(Duration.ZERO);
+    connectionProvider = webClientConfig.openLibraryConnectionProvider(10, 10, Duration.ofSeconds(5),
+      Duration.ofSeconds(20), Duration.ofMinutes(5));
+    WebClient cut = webClientConfig.openLibraryWebClient(connectionProvider, wireMockServer.baseUrl(), 5, true, 1.0);
+
+    // Act
+    cut.get().uri("/isbn/{isbn}", ISBN).retrieve().toBodilessEntity().block();
+    cut.get().uri("/isbn/{isbn}", ISBN).retrieve().toBodilessEntity().block();
+
+    // Assert
+    assertThat(wireMockServer.getAllServeEvents())
+      .extracting(event -> event.getRequest().getProtocol())
+      .contains("HTTP/2.0");
+  }
+
+  private WebClient webClient(int maxConnections, int pendingAcquireMaxCount) {
+    connectionProvider = webClientConfig.openLibraryConnectionProvider(maxConnections, pendingAcquireMaxCount,
+      Duration.ofSeconds(5), Duration.ofSeconds(20), Duration.ofMinutes(5));
+    return webClientConfig.openLibraryWebClient(connectionProvider, wireMockServer.baseUrl(), 5, false, 1.0);
+  }
+
+  private static void stubSlowBook(Duration delay) {
+    wireMockServer.stubFor(get("/isbn/" + ISBN)
+      .willReturn(aResponse()
+        .withFixedDelay((int) delay.toMillis())
+        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .withBodyFile(ISBN + "-success.json")));
+  }
+}